@@ -11,16 +11,21 @@ package com.kipper.first_spring_app.controller;
 // - PathVariable: Extrai valores de variáveis presentes no caminho da URL.
 // - RequestParam: Extrai valores de parâmetros de consulta (query parameters) da URL.
 // - Autowired: Anotação usada para injetar dependências automaticamente.
+// - Profile: Registra o bean apenas quando determinados perfis do Spring estão (ou não estão) ativos.
 // - HelloWorldService: Serviço injetado para encapsular a lógica de negócios relacionada à mensagem "Hello World".
 // - User: Classe de domínio que representa um usuário.
 import com.kipper.first_spring_app.domain.User;
 import com.kipper.first_spring_app.service.HelloWorldService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 
 // Anotação que indica que esta classe é um controlador REST.
 // @RestController combina @Controller e @ResponseBody, o que significa que os métodos retornam dados diretamente no corpo da resposta HTTP.
 @RestController
+// Anotação que registra este controlador apenas quando o perfil "reactive" NÃO está ativo.
+// Com o perfil "reactive", os mesmos endpoints são atendidos pelo HelloWorldRouter (WebFlux/Netty).
+@Profile("!reactive")
 // Anotação que mapeia todas as requisições com o caminho "/hello-world" para este controlador.
 // Qualquer método dentro desta classe será acessível através do caminho base "/hello-world".
 @RequestMapping("/hello-world")
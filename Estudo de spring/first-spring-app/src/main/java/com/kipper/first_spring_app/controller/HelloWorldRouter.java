@@ -0,0 +1,49 @@
+// Declaração do pacote onde a classe está localizada.
+package com.kipper.first_spring_app.controller;
+
+// Importações usadas para declarar os endpoints no estilo funcional do WebFlux.
+// - RouterFunction / ServerResponse: Definem as rotas e as respostas HTTP de forma não bloqueante.
+// - RouterFunctions.route(): Construtor das rotas.
+// - Profile: Registra a configuração apenas com o perfil "reactive".
+// - HelloWorldService: Mesmo serviço usado pelo HelloWorldController.
+// - User: Classe de domínio lida do corpo da requisição POST.
+// - Mono / ServerWebInputException: Resultado assíncrono e erro 400 quando o corpo não é enviado.
+import com.kipper.first_spring_app.domain.User;
+import com.kipper.first_spring_app.service.HelloWorldService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+// Versão reativa (WebFlux sobre Netty) dos endpoints do HelloWorldController.
+// É ativada pelo perfil "reactive" (veja application-reactive.properties) e responde exatamente
+// nos mesmos caminhos e com as mesmas respostas da versão servlet.
+// Nenhuma etapa bloqueia a thread do event loop: o corpo JSON do POST é decodificado de forma
+// não bloqueante (bodyToMono) e a resposta só é montada quando o corpo termina de chegar.
+@Configuration(proxyBeanMethods = false)
+@Profile("reactive")
+public class HelloWorldRouter {
+
+    // Define as rotas:
+    // - GET  /hello-world        -> "Hello World Daniel"
+    // - POST /hello-world/{id}   -> "Hello World [filter]", com o parâmetro "filter" opcional (padrão "nenhum")
+    //                               e um User no corpo da requisição.
+    @Bean
+    public RouterFunction<ServerResponse> helloWorldRotas(HelloWorldService helloWorldService) {
+        return route()
+                .GET("/hello-world", request -> ServerResponse.ok()
+                        .bodyValue(helloWorldService.helloWorld("Daniel")))
+                .POST("/hello-world/{id}", request -> request.bodyToMono(User.class)
+                        // Corpo ausente: 400 (Bad Request), como o @RequestBody obrigatório da versão servlet
+                        .switchIfEmpty(Mono.error(new ServerWebInputException("Corpo da requisição ausente")))
+                        .flatMap(body -> ServerResponse.ok()
+                                .bodyValue("Hello World " + request.queryParam("filter").orElse("nenhum"))))
+                .build();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.kipper.first_spring_app;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executa todos os benchmarks JMH do projeto (classes terminadas em "Benchmark") e grava o resultado em JSON.
+ *
+ * <p>Se for informado o resultado de uma execução anterior (por exemplo, do commit base), compara os dois
+ * e termina com erro quando algum benchmark piorar mais do que a tolerância, para que a regressão
+ * apareça antes do deploy.</p>
+ *
+ * <p>Rodar com: mvn -Pjmh test-compile exec:exec [-Djmh.referencia=base.json] [-Djmh.tolerancia=0.10]</p>
+ */
+public class ExecutarBenchmarks {
+
+	public static void main(String[] args) throws Exception {
+		String resultado = args.length > 0 ? args[0] : "target/jmh-resultado.json";
+		double tolerancia = args.length > 1 ? Double.parseDouble(args[1]) : 0.10;
+		String referencia = args.length > 2 ? args[2].trim() : "";
+
+		new File(resultado).getAbsoluteFile().getParentFile().mkdirs();
+		Options opcoes = new OptionsBuilder()
+				.include(ExecutarBenchmarks.class.getPackageName().replace(".", "\\.") + "\\..*Benchmark")
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultado)
+				.build();
+		new Runner(opcoes).run();
+
+		if (!referencia.isEmpty() && !comparar(new File(referencia), new File(resultado), tolerancia)) {
+			System.exit(1);
+		}
+	}
+
+	// Compara cada benchmark (com seus parâmetros) do resultado atual com a referência; devolve false se houver regressão
+	private static boolean comparar(File referencia, File atual, double tolerancia) throws IOException {
+		Map<String, JsonNode> anteriores = lerResultados(referencia);
+		boolean semRegressao = true;
+
+		System.out.printf("%n%-70s %12s %12s %9s%n", "benchmark", "referência", "atual", "variação");
+		for (Map.Entry<String, JsonNode> entrada : lerResultados(atual).entrySet()) {
+			JsonNode anterior = anteriores.get(entrada.getKey());
+			if (anterior == null) {
+				continue;
+			}
+			double antes = anterior.path("primaryMetric").path("score").asDouble();
+			double depois = entrada.getValue().path("primaryMetric").path("score").asDouble();
+			// Em vazão (thrpt) maior é melhor; nos demais modos (tempo) menor é melhor
+			double piora = "thrpt".equals(entrada.getValue().path("mode").asText())
+					? (antes - depois) / antes
+					: (depois - antes) / antes;
+			boolean regressao = piora > tolerancia;
+			semRegressao &= !regressao;
+			System.out.printf("%-70s %12.3f %12.3f %+8.1f%%%s%n", entrada.getKey(), antes, depois,
+					(depois - antes) / antes * 100, regressao ? "  REGRESSÃO" : "");
+		}
+		return semRegressao;
+	}
+
+	// Lê o JSON do JMH indexando cada resultado por "benchmark{parâmetros}"
+	private static Map<String, JsonNode> lerResultados(File arquivo) throws IOException {
+		Map<String, JsonNode> resultados = new LinkedHashMap<>();
+		for (JsonNode resultado : new ObjectMapper().readTree(arquivo)) {
+			Map<String, String> parametros = new TreeMap<>();
+			resultado.path("params").properties().forEach(p -> parametros.put(p.getKey(), p.getValue().asText()));
+			String nome = resultado.path("benchmark").asText().replace(ExecutarBenchmarks.class.getPackageName() + ".", "");
+			resultados.put(parametros.isEmpty() ? nome : nome + parametros, resultado);
+		}
+		return resultados;
+	}
+
+}
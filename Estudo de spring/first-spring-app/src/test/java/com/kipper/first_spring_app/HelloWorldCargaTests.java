@@ -0,0 +1,145 @@
+package com.kipper.first_spring_app;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga que compara o /hello-world no Tomcat (padrão) com a versão reativa no Netty (perfil "reactive").
+ *
+ * <p>Mede, para cada servidor, as requisições por segundo do GET e do POST com várias requisições simultâneas
+ * e a memória e as threads a mais com {@value #CONEXOES} conexões keep-alive abertas e paradas. Cliente e
+ * servidor rodam na mesma JVM, então a memória do cliente entra igual nos dois modos e a diferença é do servidor.</p>
+ *
+ * <p>Rodar com: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=HelloWorldCargaTests
+ * (com mais conexões, aumente o limite de arquivos abertos, por exemplo ulimit -n 8192).</p>
+ */
+@Tag("benchmark")
+class HelloWorldCargaTests {
+
+	private static final int REQUISICOES = 50_000;
+	private static final int SIMULTANEAS = 256;
+	private static final int CONEXOES = 400;
+
+	private static final String CORPO = "{\"name\": \"Daniel\", \"email\": \"daniel@email.com\"}";
+
+	private record Resultado(double getPorSegundo, double postPorSegundo, long bytesPorConexao, int threadsAMais) {
+	}
+
+	@Test
+	void comparaTomcatComNetty() throws Exception {
+		Resultado tomcat = executar();
+		Resultado netty = executar("reactive");
+
+		System.out.printf("%-8s %12s %12s %14s %16s%n", "servidor", "GET req/s", "POST req/s", "bytes/conexão",
+				"threads a mais");
+		imprimir("tomcat", tomcat);
+		imprimir("netty", netty);
+	}
+
+	private static void imprimir(String servidor, Resultado resultado) {
+		System.out.printf("%-8s %12.0f %12.0f %14d %16d%n", servidor, resultado.getPorSegundo(),
+				resultado.postPorSegundo(), resultado.bytesPorConexao(), resultado.threadsAMais());
+	}
+
+	private Resultado executar(String... perfis) throws Exception {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(FirstSpringAppApplication.class)
+				.profiles(perfis)
+				.run("--server.port=0")) {
+			int porta = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+			HttpRequest get = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/hello-world")).GET().build();
+			HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/hello-world/1?filter=carga"))
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(CORPO))
+					.build();
+
+			// Aquecimento do JIT nos dois caminhos
+			disparar(get, REQUISICOES / 10);
+			disparar(post, REQUISICOES / 10);
+
+			double getPorSegundo = disparar(get, REQUISICOES);
+			double postPorSegundo = disparar(post, REQUISICOES);
+			return medirConexoes(porta, getPorSegundo, postPorSegundo);
+		}
+	}
+
+	// Envia as requisições mantendo no máximo SIMULTANEAS em andamento; devolve requisições por segundo
+	private double disparar(HttpRequest requisicao, int quantidade) throws InterruptedException {
+		HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		Semaphore janela = new Semaphore(SIMULTANEAS);
+		AtomicInteger falhas = new AtomicInteger();
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < quantidade; i++) {
+			janela.acquire();
+			cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((resposta, erro) -> {
+						if (erro != null || resposta.statusCode() != 200) {
+							falhas.incrementAndGet();
+						}
+						janela.release();
+					});
+		}
+		janela.acquire(SIMULTANEAS);
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+
+		assertEquals(0, falhas.get());
+		return quantidade / segundos;
+	}
+
+	// Abre CONEXOES conexões keep-alive, faz uma requisição em cada uma e mede a memória e as threads a mais
+	private Resultado medirConexoes(int porta, double getPorSegundo, double postPorSegundo) throws Exception {
+		byte[] requisicao = ("GET /hello-world HTTP/1.1\r\nHost: localhost\r\nConnection: keep-alive\r\n\r\n")
+				.getBytes(StandardCharsets.US_ASCII);
+		long memoriaAntes = memoriaUsada();
+		int threadsAntes = ManagementFactory.getThreadMXBean().getThreadCount();
+
+		List<Socket> conexoes = new ArrayList<>(CONEXOES);
+		try {
+			for (int i = 0; i < CONEXOES; i++) {
+				Socket conexao = new Socket("localhost", porta);
+				conexoes.add(conexao);
+				OutputStream saida = conexao.getOutputStream();
+				saida.write(requisicao);
+				saida.flush();
+				// A resposta é pequena e chega em um único pacote
+				InputStream entrada = conexao.getInputStream();
+				entrada.read(new byte[1024]);
+			}
+			long bytesPorConexao = (memoriaUsada() - memoriaAntes) / CONEXOES;
+			int threads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsAntes;
+			return new Resultado(getPorSegundo, postPorSegundo, bytesPorConexao, threads);
+		} finally {
+			for (Socket conexao : conexoes) {
+				conexao.close();
+			}
+		}
+	}
+
+	private static long memoriaUsada() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.kipper.first_spring_app;
+
+import com.kipper.first_spring_app.service.HelloWorldService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem da mensagem em {@link HelloWorldService#helloWorld(String)}, o caminho do GET /hello-world.
+ * O nome fica em um campo de estado (e não em uma constante) para que o JIT não elimine a concatenação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelloWorldServiceBenchmark {
+
+	@Param({"6", "64", "1024"})
+	private int tamanhoNome;
+
+	private HelloWorldService helloWorldService;
+
+	private String nome;
+
+	@Setup
+	public void preparar() {
+		helloWorldService = new HelloWorldService();
+		nome = "D".repeat(tamanhoNome);
+	}
+
+	@Benchmark
+	public String helloWorld() {
+		return helloWorldService.helloWorld(nome);
+	}
+
+}
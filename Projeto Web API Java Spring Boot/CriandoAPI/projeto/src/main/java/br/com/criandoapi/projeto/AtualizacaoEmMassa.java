@@ -0,0 +1,37 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Dados da atualização em massa (PATCH /usuarios): os mesmos valores aplicados a todos os IDs informados.
+ * Apenas o nome e o telefone podem ser alterados em massa (o e-mail é único e a senha exige BCrypt por usuário).
+ *
+ * param ids IDs dos usuários a alterar; IDs inexistentes são ignorados.
+ * param nome Novo nome, ou null para manter o atual.
+ * param telefone Novo telefone, ou null para manter o atual.
+ */
+public record AtualizacaoEmMassa(
+        @NotEmpty(message = "Informe ao menos um ID!")
+        List<@NotNull(message = "O ID não pode ser nulo!") Integer> ids,
+
+        @Pattern(regexp = ".*\\S.*", message = "O nome não pode ser vazio!")
+        @Size(min = 3, max = 200, message = "O nome deve ter entre 3 e 200 caracteres!")
+        String nome,
+
+        @Pattern(regexp = ".*\\S.*", message = "O telefone não pode ser vazio!")
+        @Size(max = 15, message = "O telefone deve ter no máximo 15 caracteres!")
+        String telefone) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe o nome ou o telefone a alterar!")
+    public boolean isAlgumCampo() {
+        return nome != null || telefone != null;
+    }
+}
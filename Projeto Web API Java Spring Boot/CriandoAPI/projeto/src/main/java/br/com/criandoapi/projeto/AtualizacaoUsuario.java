@@ -0,0 +1,35 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Dados de uma atualização parcial (PATCH) de usuário.
+ * Campos nulos não são alterados.
+ *
+ * param nome Novo nome, ou null para manter o atual.
+ * param email Novo e-mail, ou null para manter o atual.
+ * param senha Nova senha em texto puro, ou null para manter a atual.
+ * param telefone Novo telefone, ou null para manter o atual.
+ * param version Versão que o cliente leu; se informada, a atualização só é aplicada se o registro ainda estiver nesta versão.
+ */
+public record AtualizacaoUsuario(
+        @Pattern(regexp = ".*\\S.*", message = "O nome não pode ser vazio!")
+        @Size(min = 3, max = 200, message = "O nome deve ter entre 3 e 200 caracteres!")
+        String nome,
+
+        @Email(message = "Insira um email válido!")
+        @Pattern(regexp = ".*\\S.*", message = "O email não pode ser vazio!")
+        @Size(max = 50, message = "O email deve ter no máximo 50 caracteres!")
+        String email,
+
+        @Pattern(regexp = ".*\\S.*", message = "A senha não pode ser vazia!")
+        String senha,
+
+        @Pattern(regexp = ".*\\S.*", message = "O telefone não pode ser vazio!")
+        @Size(max = 15, message = "O telefone deve ter no máximo 15 caracteres!")
+        String telefone,
+
+        Integer version) {
+}
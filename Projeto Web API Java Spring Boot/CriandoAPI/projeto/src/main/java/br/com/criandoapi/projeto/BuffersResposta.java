@@ -0,0 +1,128 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Conjunto de buffers reutilizáveis onde os conversores de resposta ({@link ConfiguracaoRespostas})
+ * serializam o corpo antes de enviá-lo.
+ *
+ * <p>Com o corpo inteiro no buffer, a resposta sai com Content-Length e em uma única escrita no socket. O
+ * Content-Length também é o que permite ao Tomcat aplicar {@code server.compression.min-response-size}: sem ele
+ * (resposta em chunks) toda resposta JSON seria comprimida, mesmo as de um único usuário, em que o gzip
+ * gasta CPU para economizar quase nada.</p>
+ *
+ * <p>Os buffers ficam em uma fila compartilhada por todas as threads (e não em ThreadLocal, que não reaproveita
+ * nada com threads virtuais, criadas uma por requisição). Buffers que cresceram além de
+ * {@code usuarios.respostas.buffers.tamanho-maximo} são descartados em vez de devolvidos, para que uma resposta
+ * grande ocasional não fique retendo memória.</p>
+ */
+@Component
+public class BuffersResposta {
+
+    // Tamanho inicial de cada buffer: cobre uma página de 20 usuários e as respostas de erro
+    private static final int TAMANHO_INICIAL = 8 * 1024;
+
+    /**
+     * Escrita do corpo em uma mensagem de saída (normalmente o {@code writeInternal} do conversor).
+     */
+    @FunctionalInterface
+    public interface Escrita {
+        void escrever(HttpOutputMessage destino) throws IOException;
+    }
+
+    // Buffers livres para a próxima resposta
+    private final ArrayBlockingQueue<Buffer> livres;
+
+    // Capacidade máxima de um buffer para ele voltar à fila
+    private final int tamanhoMaximo;
+
+    /**
+     * param quantidade Quantidade máxima de buffers guardados para reuso (propriedade usuarios.respostas.buffers.quantidade).
+     * param tamanhoMaximo Capacidade máxima de um buffer reaproveitado (propriedade usuarios.respostas.buffers.tamanho-maximo).
+     */
+    public BuffersResposta(@Value("${usuarios.respostas.buffers.quantidade:64}") int quantidade,
+                           @Value("${usuarios.respostas.buffers.tamanho-maximo:256KB}") DataSize tamanhoMaximo) {
+        this.livres = new ArrayBlockingQueue<>(Math.max(quantidade, 1));
+        this.tamanhoMaximo = (int) Math.min(tamanhoMaximo.toBytes(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Executa a escrita sobre um buffer emprestado e depois envia o corpo à saída, com Content-Length.
+     * Os cabeçalhos são os da própria saída, então o tipo de conteúdo e o charset continuam valendo.
+     *
+     * param saida Mensagem de saída da resposta HTTP.
+     * param escrita Serialização do corpo.
+     * throws IOException se a serialização ou o envio falhar.
+     */
+    public void escrever(HttpOutputMessage saida, Escrita escrita) throws IOException {
+        Buffer buffer = emprestar();
+        try {
+            escrita.escrever(new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return buffer;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return saida.getHeaders();
+                }
+            });
+            saida.getHeaders().setContentLength(buffer.tamanho);
+            saida.getBody().write(buffer.dados, 0, buffer.tamanho);
+        } finally {
+            devolver(buffer);
+        }
+    }
+
+    private Buffer emprestar() {
+        Buffer buffer = livres.poll();
+        return buffer != null ? buffer : new Buffer(TAMANHO_INICIAL);
+    }
+
+    private void devolver(Buffer buffer) {
+        if (buffer.dados.length <= tamanhoMaximo) {
+            buffer.tamanho = 0;
+            livres.offer(buffer);
+        }
+    }
+
+    // Saída em memória sem synchronized (o ByteArrayOutputStream prenderia a thread virtual no writeTo do socket)
+    private static final class Buffer extends OutputStream {
+
+        private byte[] dados;
+        private int tamanho;
+
+        Buffer(int capacidade) {
+            this.dados = new byte[capacidade];
+        }
+
+        @Override
+        public void write(int b) {
+            garantirEspaco(1);
+            dados[tamanho++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] origem, int inicio, int quantidade) {
+            garantirEspaco(quantidade);
+            System.arraycopy(origem, inicio, dados, tamanho, quantidade);
+            tamanho += quantidade;
+        }
+
+        private void garantirEspaco(int quantidade) {
+            if (tamanho + quantidade > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + quantidade));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.criandoapi.projeto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * Cache em memória, limitado por tamanho e por tempo, das consultas de usuário por ID.
+ *
+ * <p>Funciona como read-through: na ausência do ID, o usuário é carregado do banco e guardado.
+ * As alterações feitas pelo UsuarioService chegam pelo evento {@link UsuarioAlterado} e são aplicadas
+ * comparando a coluna {@code version}: uma entrada só substitui outra se tiver versão maior ou igual.
+ * Assim, uma leitura lenta que terminou depois de uma atualização nunca sobrescreve o dado mais novo.
+ * Exclusões deixam uma marca (tombstone) com versão máxima, que impede que uma leitura atrasada
+ * traga de volta um usuário já excluído.</p>
+ *
+ * <p>Métricas de acertos, faltas e remoções são publicadas com o nome {@code cache.*} e a tag {@code cache=usuarios}.</p>
+ */
+@Component
+public class CacheUsuarios {
+
+    // Versão usada pela marca de exclusão, maior que qualquer versão real
+    private static final int VERSAO_EXCLUIDO = Integer.MAX_VALUE;
+
+    // Versão usada para "usuário não existe", menor que qualquer versão real
+    private static final int VERSAO_AUSENTE = -1;
+
+    /**
+     * Entrada do cache: o usuário (ou null, se não existir) e a versão usada na comparação.
+     */
+    private record Entrada(UsuarioResumo usuario, int versao) {
+    }
+
+    private final Cache<Integer, Entrada> cache;
+
+    /**
+     * Construtor que cria o cache com os limites configurados e registra as métricas.
+     *
+     * param tamanhoMaximo Quantidade máxima de usuários em cache (usuarios.cache.tamanho-maximo).
+     * param ttl Tempo máximo de vida de cada entrada (usuarios.cache.ttl).
+     * param registry Registro de métricas do Micrometer.
+     */
+    public CacheUsuarios(@Value("${usuarios.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                         @Value("${usuarios.cache.ttl:5m}") Duration ttl,
+                         MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "usuarios");
+    }
+
+    /**
+     * Busca o usuário no cache, carregando do banco na primeira consulta.
+     *
+     * param id ID do usuário.
+     * param carregar Função que busca o usuário no banco quando ele não está em cache.
+     * return Resumo do usuário, ou vazio se ele não existir.
+     */
+    public Optional<UsuarioResumo> buscar(int id, IntFunction<Optional<UsuarioResumo>> carregar) {
+        Entrada entrada = cache.get(id, chave -> carregar.apply(chave)
+                .map(usuario -> new Entrada(usuario, usuario.version()))
+                .orElseGet(() -> new Entrada(null, VERSAO_AUSENTE)));
+        return Optional.ofNullable(entrada.usuario());
+    }
+
+    /**
+     * Aplica no cache as alterações publicadas pelo UsuarioService.
+     *
+     * param evento Alteração de usuário.
+     */
+    @EventListener
+    public void aoAlterar(UsuarioAlterado evento) {
+        Entrada nova = evento.tipo() == UsuarioAlterado.Tipo.EXCLUIDO
+                ? new Entrada(null, VERSAO_EXCLUIDO)
+                : new Entrada(evento.usuario(), evento.version());
+        cache.asMap().merge(evento.id(), nova, (atual, recebida) -> recebida.versao() >= atual.versao() ? recebida : atual);
+    }
+}
@@ -0,0 +1,348 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Componente responsável por criptografar e validar senhas com BCrypt.
+ *
+ * <p>O BCrypt é propositalmente caro em CPU. Para que um pico de logins não ocupe todas as threads
+ * do Tomcat, todo o trabalho de BCrypt roda em um pool dedicado, dimensionado pelo número de núcleos,
+ * com fila limitada. Quando a fila enche, a tarefa é recusada imediatamente com {@link SobrecargaException}
+ * (HTTP 503), em vez de acumular requisições esperando.</p>
+ *
+ * <p>Como cada tarefa na fila ou em execução prende a thread do Tomcat que espera por ela, a fila é dimensionada
+ * a partir de {@code server.tomcat.threads.max}: fila + pool cabem no Tomcat deixando
+ * {@code usuarios.senha.threads-livres} threads para os demais endpoints, e a recusa acontece antes de o Tomcat
+ * ficar sem threads. Em hosts com mais núcleos do que esse limite, o pool fica menor que o número de núcleos.
+ * Uma capacidade configurada que não caiba no limite impede a inicialização; já um limite calculado pequeno
+ * demais só gera um aviso no log.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics):</p>
+ * <ul>
+ *   <li>usuarios.senha.fila - tarefas aguardando na fila</li>
+ *   <li>usuarios.senha.ativas - tarefas em execução</li>
+ *   <li>usuarios.senha.hash - tempo de cada operação de BCrypt (tag operacao=codificar|conferir)</li>
+ *   <li>usuarios.senha.espera - tempo que a tarefa ficou na fila antes de executar</li>
+ *   <li>usuarios.senha.rejeitadas - tarefas recusadas por fila cheia</li>
+ * </ul>
+ */
+@Component
+public class CodificadorSenhas {
+
+    private static final Logger log = LoggerFactory.getLogger(CodificadorSenhas.class);
+
+    // Limites de custo aceitos pelo BCrypt
+    private static final int FORCA_MINIMA = 4;
+    private static final int FORCA_MAXIMA = 31;
+
+    // Formato de um hash BCrypt: $2a$, $2b$ ou $2y$, custo com dois dígitos e 53 caracteres de sal + hash
+    private static final Pattern FORMATO_BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    // Capacidade da fila quando a espera não prende threads do Tomcat (threads virtuais) e nada foi configurado
+    private static final int CAPACIDADE_PADRAO_VIRTUAIS = 256;
+
+    // Codificador BCrypt (thread-safe)
+    private final PasswordEncoder passwordEncoder;
+
+    // Custo (log2 das rodadas) efetivamente usado pelo BCrypt
+    private final int forca;
+
+    // Pool dedicado e limitado usado para todo o trabalho de BCrypt
+    private final ThreadPoolExecutor executor;
+
+    // Hash de uma senha aleatória, usado para igualar o tempo do login de e-mails inexistentes
+    private final String hashFicticio;
+
+    // Métricas
+    private final Timer tempoCodificar;
+    private final Timer tempoConferir;
+    private final Timer tempoEspera;
+    private final Counter rejeitadas;
+
+    /**
+     * Construtor que inicializa o codificador e o pool de threads dimensionado pelos núcleos disponíveis.
+     *
+     * param forca Custo do BCrypt (propriedade usuarios.senha.bcrypt-forca).
+     * param latenciaAlvoMs Se maior que zero, calibra o custo para ficar abaixo desta latência por hash
+     *                      neste host, ignorando a propriedade de força (usuarios.senha.latencia-alvo-ms).
+     * param capacidadeFila Quantidade máxima de tarefas aguardando, ou 0 para calcular pelo Tomcat (usuarios.senha.capacidade-fila).
+     * param threadsTomcat Máximo de threads do Tomcat (server.tomcat.threads.max).
+     * param threadsLivres Threads do Tomcat reservadas aos endpoints que não usam BCrypt (usuarios.senha.threads-livres).
+     * param threadsVirtuais Se as requisições rodam em threads virtuais (spring.threads.virtual.enabled).
+     * param registry Registro de métricas do Micrometer.
+     * throws IllegalStateException se a capacidade da fila não couber nas threads do Tomcat.
+     */
+    public CodificadorSenhas(@Value("${usuarios.senha.bcrypt-forca:10}") int forca,
+                             @Value("${usuarios.senha.latencia-alvo-ms:0}") long latenciaAlvoMs,
+                             @Value("${usuarios.senha.capacidade-fila:0}") int capacidadeFila,
+                             @Value("${server.tomcat.threads.max:200}") int threadsTomcat,
+                             @Value("${usuarios.senha.threads-livres:50}") int threadsLivres,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais,
+                             MeterRegistry registry) {
+        this.forca = latenciaAlvoMs > 0 ? calibrarForca(latenciaAlvoMs) : forca;
+        this.passwordEncoder = new BCryptPasswordEncoder(this.forca);
+        this.hashFicticio = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        int threads = dimensionarPool(Runtime.getRuntime().availableProcessors(), threadsTomcat, threadsLivres, threadsVirtuais);
+        int fila = dimensionarFila(capacidadeFila, threads, threadsTomcat, threadsLivres, threadsVirtuais);
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "bcrypt-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("usuarios.senha.fila", executor, e -> e.getQueue().size())
+                .description("Tarefas de BCrypt aguardando na fila")
+                .register(registry);
+        Gauge.builder("usuarios.senha.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Tarefas de BCrypt em execução")
+                .register(registry);
+        Gauge.builder("usuarios.senha.forca", this, CodificadorSenhas::getForca)
+                .description("Custo do BCrypt em uso")
+                .register(registry);
+        this.tempoCodificar = Timer.builder("usuarios.senha.hash").tag("operacao", "codificar")
+                .publishPercentiles(0.5, 0.99).register(registry);
+        this.tempoConferir = Timer.builder("usuarios.senha.hash").tag("operacao", "conferir")
+                .publishPercentiles(0.5, 0.99).register(registry);
+        this.tempoEspera = Timer.builder("usuarios.senha.espera")
+                .publishPercentiles(0.5, 0.99).register(registry);
+        this.rejeitadas = Counter.builder("usuarios.senha.rejeitadas").register(registry);
+
+        log.info("BCrypt com custo {} em {} threads (fila de {} tarefas)", this.forca, threads, fila);
+    }
+
+    /**
+     * Calcula o número de threads do pool do BCrypt: um por núcleo, mas, com threads de plataforma, sem passar de
+     * {@code threadsTomcat - threadsLivres - 1}, para que sobre ao menos uma posição na fila.
+     *
+     * param nucleos Núcleos disponíveis.
+     * param threadsTomcat Máximo de threads do Tomcat.
+     * param threadsLivres Threads do Tomcat que devem continuar livres para os outros endpoints.
+     * param threadsVirtuais Se as requisições rodam em threads virtuais.
+     * return Threads do pool (no mínimo 1).
+     */
+    static int dimensionarPool(int nucleos, int threadsTomcat, int threadsLivres, boolean threadsVirtuais) {
+        if (threadsVirtuais) {
+            return nucleos;
+        }
+        int threads = Math.max(1, Math.min(nucleos, threadsTomcat - threadsLivres - 1));
+        if (threads < nucleos) {
+            log.warn("BCrypt limitado a {} threads ({} núcleos): server.tomcat.threads.max={} com {} threads livres",
+                    threads, nucleos, threadsTomcat, threadsLivres);
+        }
+        return threads;
+    }
+
+    /**
+     * Calcula a capacidade da fila do BCrypt. Com threads de plataforma, fila + pool precisam caber em
+     * {@code threadsTomcat - threadsLivres}; com threads virtuais a espera não prende threads do Tomcat.
+     *
+     * param configurada Capacidade configurada, ou 0 (ou negativa) para usar o maior valor permitido.
+     * param threadsPool Threads do pool de BCrypt.
+     * param threadsTomcat Máximo de threads do Tomcat.
+     * param threadsLivres Threads do Tomcat que devem continuar livres para os outros endpoints.
+     * param threadsVirtuais Se as requisições rodam em threads virtuais.
+     * return Capacidade da fila (no mínimo 1, com um aviso no log quando nem isso couber no Tomcat).
+     * throws IllegalStateException se a capacidade configurada não couber no Tomcat.
+     */
+    static int dimensionarFila(int configurada, int threadsPool, int threadsTomcat, int threadsLivres, boolean threadsVirtuais) {
+        if (threadsVirtuais) {
+            return configurada > 0 ? configurada : CAPACIDADE_PADRAO_VIRTUAIS;
+        }
+        int limite = threadsTomcat - threadsLivres - threadsPool;
+        if (limite < 1) {
+            log.warn("server.tomcat.threads.max={} não comporta {} threads de BCrypt e {} threads livres; usando fila de 1 tarefa. "
+                    + "Aumente server.tomcat.threads.max ou reduza usuarios.senha.threads-livres", threadsTomcat, threadsPool, threadsLivres);
+            return 1;
+        }
+        if (configurada <= 0) {
+            return limite;
+        }
+        if (configurada > limite) {
+            throw new IllegalStateException(("usuarios.senha.capacidade-fila=%d prenderia mais threads do que o Tomcat tem "
+                    + "(máximo %d = server.tomcat.threads.max %d - threads-livres %d - threads de BCrypt %d)")
+                    .formatted(configurada, limite, threadsTomcat, threadsLivres, threadsPool));
+        }
+        return configurada;
+    }
+
+    /**
+     * Encontra o maior custo do BCrypt cujo hash leva no máximo {@code latenciaAlvoMs} neste host.
+     * Cada custo adicional dobra o tempo, então a busca para assim que o próximo custo passaria do alvo.
+     *
+     * param latenciaAlvoMs Latência máxima desejada por hash, em milissegundos.
+     * return Custo calibrado (no mínimo 4).
+     */
+    static int calibrarForca(long latenciaAlvoMs) {
+        long alvoNanos = TimeUnit.MILLISECONDS.toNanos(latenciaAlvoMs);
+        int escolhida = FORCA_MINIMA;
+        for (int candidata = FORCA_MINIMA; candidata <= FORCA_MAXIMA; candidata++) {
+            long tempo = medirHash(candidata);
+            if (tempo > alvoNanos) {
+                break;
+            }
+            escolhida = candidata;
+            if (tempo * 2 > alvoNanos) {
+                break;
+            }
+        }
+        return escolhida;
+    }
+
+    // Mede o menor tempo de 3 hashes para reduzir o ruído do JIT e do agendador
+    private static long medirHash(int forca) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(forca);
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long inicio = System.nanoTime();
+            encoder.encode("calibracao-bcrypt");
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+        }
+        return melhor;
+    }
+
+    /**
+     * Criptografa uma senha em texto puro no pool dedicado.
+     *
+     * param senha Senha em texto puro.
+     * return Hash BCrypt da senha.
+     * throws SobrecargaException se a fila de criptografia estiver cheia.
+     */
+    public String codificar(String senha) {
+        return aguardar(enviar(() -> tempoCodificar.record(() -> passwordEncoder.encode(senha))));
+    }
+
+    /**
+     * Verifica, no pool dedicado, se a senha em texto puro corresponde ao hash armazenado.
+     *
+     * param senha Senha em texto puro.
+     * param hash Hash BCrypt armazenado.
+     * return true se a senha corresponder ao hash.
+     * throws SobrecargaException se a fila de criptografia estiver cheia.
+     */
+    public boolean confere(String senha, String hash) {
+        return aguardar(enviar(() -> tempoConferir.record(() -> passwordEncoder.matches(senha, hash))));
+    }
+
+    /**
+     * Faz uma verificação de BCrypt com o mesmo custo de {@link #confere}, mas contra um hash fictício.
+     * Usado quando o usuário não existe, para que o tempo de resposta seja o mesmo de uma senha errada.
+     *
+     * param senha Senha em texto puro recebida.
+     * return Sempre false.
+     * throws SobrecargaException se a fila de criptografia estiver cheia.
+     */
+    public boolean confereInexistente(String senha) {
+        confere(senha, hashFicticio);
+        return false;
+    }
+
+    /**
+     * Criptografa várias senhas em paralelo no pool dedicado, preservando a ordem da lista.
+     *
+     * <p>Para não ocupar a fila inteira com um único lote (e recusar logins), no máximo duas tarefas
+     * por thread do pool ficam pendentes ao mesmo tempo: a próxima só é enviada quando a mais antiga termina.</p>
+     *
+     * param senhas Senhas em texto puro.
+     * return Hashes BCrypt, na mesma ordem das senhas recebidas.
+     * throws SobrecargaException se a fila de criptografia estiver cheia.
+     */
+    public List<String> codificarTodos(List<String> senhas) {
+        int janela = executor.getMaximumPoolSize() * 2;
+        Deque<Future<String>> pendentes = new ArrayDeque<>(janela);
+        List<String> hashes = new ArrayList<>(senhas.size());
+        for (String senha : senhas) {
+            if (pendentes.size() == janela) {
+                hashes.add(aguardar(pendentes.removeFirst()));
+            }
+            pendentes.addLast(enviar(() -> tempoCodificar.record(() -> passwordEncoder.encode(senha))));
+        }
+        while (!pendentes.isEmpty()) {
+            hashes.add(aguardar(pendentes.removeFirst()));
+        }
+        return hashes;
+    }
+
+    /**
+     * Indica se o valor tem o formato de um hash BCrypt. Só um valor assim pode ser o hash já gravado para um
+     * usuário, então os demais podem ser criptografados sem consultar o banco; ter o formato não basta para
+     * deixar de criptografar.
+     *
+     * param valor Valor recebido no campo senha.
+     * return true se o valor tiver o formato de um hash BCrypt.
+     */
+    public boolean pareceHash(String valor) {
+        return valor != null && FORMATO_BCRYPT.matcher(valor).matches();
+    }
+
+    public int getForca() {
+        return forca;
+    }
+
+    // Envia a tarefa ao pool, medindo o tempo de fila; recusa imediatamente se a fila estiver cheia
+    private <T> Future<T> enviar(Callable<T> tarefa) {
+        long enfileirada = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                tempoEspera.record(System.nanoTime() - enfileirada, TimeUnit.NANOSECONDS);
+                return tarefa.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitadas.increment();
+            throw new SobrecargaException("Fila de criptografia de senhas cheia", 1);
+        }
+    }
+
+    // Aguarda o resultado da tarefa, propagando a exceção original
+    private static <T> T aguardar(Future<T> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuro.cancel(true);
+            throw new IllegalStateException("Interrompido aguardando a criptografia da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Encerra o pool de threads quando o contexto do Spring é finalizado.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
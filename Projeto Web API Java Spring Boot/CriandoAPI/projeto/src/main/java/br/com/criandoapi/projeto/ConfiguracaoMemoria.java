@@ -0,0 +1,50 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Configuração do perfil {@code memoria}, em que os usuários ficam no {@link RepositorioUsuariosMemoria} em vez do MySQL.
+ *
+ * <p>O application-memoria.properties desliga o DataSource, o JPA e os repositórios do Spring Data. Este
+ * gerenciador de transações ocupa o lugar do JpaTransactionManager para que os {@code @Transactional}, o
+ * TransactionTemplate e os eventos publicados após o commit continuem funcionando. Ele não desfaz nada no
+ * rollback: cada operação do repositório em memória já é atômica.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("memoria")
+public class ConfiguracaoMemoria {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new TransacoesMemoria();
+    }
+
+    /**
+     * Gerenciador de transações sem recurso: só delimita as transações (e as sincronizações do Spring).
+     */
+    static class TransacoesMemoria extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transacao, TransactionDefinition definicao) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
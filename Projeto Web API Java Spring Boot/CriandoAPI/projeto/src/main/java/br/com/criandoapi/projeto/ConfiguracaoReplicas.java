@@ -0,0 +1,82 @@
+package br.com.criandoapi.projeto;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separação de leituras e escritas entre o banco principal e as réplicas de leitura.
+ *
+ * <p>Só é ativada quando há ao menos uma réplica em {@code usuarios.replicas.fontes}; sem réplicas,
+ * o Spring Boot cria o DataSource do banco principal normalmente.</p>
+ *
+ * <p>O DataSource usado pelo JPA e pelo JdbcTemplate passa a ser um {@link LazyConnectionDataSourceProxy}
+ * sobre o {@link RoteadorDataSource}: transações {@code @Transactional(readOnly = true)} leem de uma réplica
+ * saudável e todo o resto vai para o banco principal (configurado em {@code spring.datasource.*}).</p>
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(PropriedadesReplicas.class)
+@ConditionalOnProperty("usuarios.replicas.fontes[0].url")
+public class ConfiguracaoReplicas {
+
+    /**
+     * Pool de conexões do banco principal, com as mesmas propriedades do DataSource padrão do Spring Boot.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Monitor das réplicas, dono dos pools de conexão delas (do mesmo tamanho do pool principal).
+     */
+    @Bean
+    public MonitorReplicas monitorReplicas(PropriedadesReplicas propriedades, HikariDataSource primarioDataSource,
+                                           MeterRegistry registry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (PropriedadesReplicas.Fonte fonte : propriedades.fontes()) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(fonte.url());
+            replica.setUsername(fonte.username());
+            replica.setPassword(fonte.password());
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(primarioDataSource.getMaximumPoolSize());
+            replica.setConnectionTimeout(propriedades.tempoConexao().toMillis());
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicas.add(replica);
+        }
+        return new MonitorReplicas(replicas, propriedades, registry);
+    }
+
+    /**
+     * DataSource usado pela aplicação: roteia cada conexão para o banco principal ou para uma réplica.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primarioDataSource, MonitorReplicas monitorReplicas) {
+        return new LazyConnectionDataSourceProxy(new RoteadorDataSource(primarioDataSource, monitorReplicas));
+    }
+
+    /**
+     * Filtro que mantém as leituras de um cliente no banco principal logo após as alterações feitas por ele.
+     */
+    @Bean
+    public FilterRegistrationBean<LeituraAposEscrita> leituraAposEscrita(PropriedadesReplicas propriedades) {
+        return new FilterRegistrationBean<>(new LeituraAposEscrita(propriedades.janelaLeituraAposEscrita()));
+    }
+}
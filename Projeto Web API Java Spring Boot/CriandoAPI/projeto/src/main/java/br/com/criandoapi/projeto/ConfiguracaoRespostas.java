@@ -0,0 +1,108 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Configuração da serialização das respostas da API.
+ *
+ * <ul>
+ *   <li>Os buffers internos do Jackson (de bytes e de caracteres) vêm de um pool compartilhado entre as threads,
+ *       em vez do pool padrão por ThreadLocal, que com threads virtuais (perfil "virtual") aloca buffers novos
+ *       a cada requisição.</li>
+ *   <li>Os conversores JSON e CBOR serializam o corpo em um buffer reutilizável ({@link BuffersResposta}) e o
+ *       enviam com Content-Length, o que permite ao Tomcat comprimir com gzip apenas as respostas acima de
+ *       {@code server.compression.min-response-size}.</li>
+ *   <li>O CBOR (application/cbor) é um formato binário opcional para chamadas internas: o cliente o pede pelo
+ *       cabeçalho Accept e recebe os mesmos campos do JSON, com números em binário e sem aspas nem escapes.</li>
+ * </ul>
+ *
+ * <p>Os dois ObjectMappers saem do builder do Spring Boot, então têm os mesmos módulos e o mesmo
+ * {@link SerializadorUsuarioResumo}.</p>
+ */
+@Configuration(proxyBeanMethods = false)
+public class ConfiguracaoRespostas {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer poolBuffersJackson() {
+        return builder -> builder.postConfigurer(ConfiguracaoRespostas::usarPoolCompartilhado);
+    }
+
+    /**
+     * Faz o ObjectMapper reaproveitar os buffers do Jackson entre todas as threads.
+     *
+     * param objectMapper ObjectMapper a configurar (JSON ou CBOR).
+     */
+    static void usarPoolCompartilhado(ObjectMapper objectMapper) {
+        objectMapper.getFactory().setRecyclerPool(JsonRecyclerPools.sharedConcurrentDequePool());
+    }
+
+    // Substitui o conversor JSON padrão do Spring Boot
+    @Bean
+    public ConversorJson conversorJson(ObjectMapper objectMapper, BuffersResposta buffers) {
+        return new ConversorJson(objectMapper, buffers);
+    }
+
+    // Substitui o conversor CBOR padrão do Spring MVC, que usaria um ObjectMapper sem as configurações do Boot
+    @Bean
+    public ConversorCbor conversorCbor(Jackson2ObjectMapperBuilder builder, BuffersResposta buffers) {
+        return new ConversorCbor(builder.factory(new CBORFactory()).build(), buffers);
+    }
+
+    /**
+     * Conversor JSON que escreve as respostas comuns pelo buffer reutilizável. Os eventos do feed SSE
+     * (saída que não é uma {@link ServletServerHttpResponse}) continuam sendo escritos direto no fluxo.
+     */
+    static class ConversorJson extends MappingJackson2HttpMessageConverter {
+
+        private final BuffersResposta buffers;
+
+        ConversorJson(ObjectMapper objectMapper, BuffersResposta buffers) {
+            super(objectMapper);
+            this.buffers = buffers;
+        }
+
+        @Override
+        protected void writeInternal(Object objeto, Type tipo, HttpOutputMessage saida) throws IOException {
+            if (saida instanceof ServletServerHttpResponse) {
+                buffers.escrever(saida, destino -> super.writeInternal(objeto, tipo, destino));
+            } else {
+                super.writeInternal(objeto, tipo, saida);
+            }
+        }
+    }
+
+    /**
+     * Conversor CBOR que escreve as respostas pelo buffer reutilizável, como o {@link ConversorJson}.
+     */
+    static class ConversorCbor extends MappingJackson2CborHttpMessageConverter {
+
+        private final BuffersResposta buffers;
+
+        ConversorCbor(ObjectMapper objectMapper, BuffersResposta buffers) {
+            super(objectMapper);
+            this.buffers = buffers;
+        }
+
+        @Override
+        protected void writeInternal(Object objeto, Type tipo, HttpOutputMessage saida) throws IOException {
+            if (saida instanceof ServletServerHttpResponse) {
+                buffers.escrever(saida, destino -> super.writeInternal(objeto, tipo, destino));
+            } else {
+                super.writeInternal(objeto, tipo, saida);
+            }
+        }
+    }
+}
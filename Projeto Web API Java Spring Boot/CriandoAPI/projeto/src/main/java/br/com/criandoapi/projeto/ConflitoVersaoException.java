@@ -0,0 +1,21 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o usuário foi alterado por outra requisição depois que o cliente o leu
+ * (a versão informada não é mais a versão atual do registro).
+ * Convertida em HTTP 409 (Conflict).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflitoVersaoException extends RuntimeException {
+
+    public ConflitoVersaoException(int id, int versao) {
+        super("Usuário " + id + " não está mais na versão " + versao);
+    }
+
+    public ConflitoVersaoException(String mensagem) {
+        super(mensagem);
+    }
+}
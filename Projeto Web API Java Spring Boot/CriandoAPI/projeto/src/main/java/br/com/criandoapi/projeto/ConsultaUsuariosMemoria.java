@@ -0,0 +1,254 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ordenação ({@link Sort}) e consulta por {@link Example} sobre uma cópia dos usuários do
+ * {@link RepositorioUsuariosMemoria}, com a mesma semântica do Spring Data JPA.
+ *
+ * <p>As propriedades são as colunas da entidade: id, version, nome, email, senha e telefone. Como no JPA,
+ * os campos primitivos do exemplo (id e version) entram na comparação mesmo com valor 0, a menos que sejam
+ * ignorados no {@link ExampleMatcher}; e uma propriedade inexistente na ordenação gera
+ * {@link PropertyReferenceException}.</p>
+ */
+final class ConsultaUsuariosMemoria {
+
+    // Propriedades da entidade, na ordem das colunas
+    private static final List<String> PROPRIEDADES = List.of("id", "version", "nome", "email", "senha", "telefone");
+
+    private ConsultaUsuariosMemoria() {
+    }
+
+    /**
+     * Ordena a lista recebida. Usuários empatados em todas as propriedades da ordenação ficam em ordem de ID.
+     *
+     * param usuarios Cópia dos usuários (alterada no lugar).
+     * param sort Ordenação pedida.
+     * return A própria lista, ordenada.
+     */
+    static List<Usuario> ordenar(List<Usuario> usuarios, Sort sort) {
+        if (sort.isSorted()) {
+            usuarios.sort(comparador(sort));
+        }
+        return usuarios;
+    }
+
+    /**
+     * Recorta uma página de uma lista já ordenada.
+     *
+     * param usuarios Usuários ordenados.
+     * param pageable Página pedida (a ordenação já deve ter sido aplicada).
+     * param conversor Conversão de cada usuário no tipo da página.
+     * return Página com o total de usuários da lista.
+     */
+    static <T> Page<T> paginar(List<Usuario> usuarios, Pageable pageable, Function<Usuario, T> conversor) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(usuarios.stream().map(conversor).toList());
+        }
+        int inicio = (int) Math.min(pageable.getOffset(), usuarios.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), usuarios.size());
+        return new PageImpl<>(usuarios.subList(inicio, fim).stream().map(conversor).toList(), pageable, usuarios.size());
+    }
+
+    /**
+     * Indica se o usuário corresponde ao exemplo, segundo o {@link ExampleMatcher} do exemplo.
+     *
+     * param usuario Usuário candidato.
+     * param exemplo Exemplo da consulta.
+     * return true se corresponder.
+     */
+    static boolean corresponde(Usuario usuario, Example<? extends Usuario> exemplo) {
+        ExampleMatcherAccessor regras = new ExampleMatcherAccessor(exemplo.getMatcher());
+        boolean todas = exemplo.getMatcher().isAllMatching();
+        boolean algumaConsiderada = false;
+        for (String propriedade : PROPRIEDADES) {
+            if (regras.isIgnoredPath(propriedade)) {
+                continue;
+            }
+            Object esperado = regras.getValueTransformerForPath(propriedade)
+                    .apply(Optional.ofNullable(valor(exemplo.getProbe(), propriedade))).orElse(null);
+            if (esperado == null && regras.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            algumaConsiderada = true;
+            boolean igual = valorCorresponde(propriedade, esperado, valor(usuario, propriedade), regras);
+            if (todas && !igual) {
+                return false;
+            }
+            if (!todas && igual) {
+                return true;
+            }
+        }
+        // Sem nenhuma propriedade a comparar, o JPA não aplica filtro algum
+        return todas || !algumaConsiderada;
+    }
+
+    /**
+     * Consulta fluente ({@code findBy}) sobre os usuários que já correspondem ao exemplo.
+     *
+     * param usuarios Usuários que correspondem ao exemplo, em ordem de ID.
+     * return Consulta que devolve os próprios usuários.
+     */
+    static FluentQuery.FetchableFluentQuery<Usuario> consulta(List<Usuario> usuarios) {
+        return new Consulta<>(usuarios, Sort.unsorted(), 0, usuario -> usuario);
+    }
+
+    private static Comparator<Usuario> comparador(Sort sort) {
+        Comparator<Usuario> comparador = null;
+        for (Sort.Order ordem : sort) {
+            String propriedade = ordem.getProperty();
+            Comparator<String> textos = ordem.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.<String>naturalOrder();
+            Comparator<Usuario> criterio = switch (propriedade) {
+                case "id" -> Comparator.comparingInt(Usuario::getId);
+                case "version" -> Comparator.comparingInt(Usuario::getVersion);
+                case "nome", "email", "senha", "telefone" ->
+                        Comparator.comparing((Usuario usuario) -> (String) valor(usuario, propriedade), Comparator.nullsFirst(textos));
+                default -> throw new PropertyReferenceException(propriedade, TypeInformation.of(Usuario.class), List.of());
+            };
+            if (ordem.isDescending()) {
+                criterio = criterio.reversed();
+            }
+            comparador = comparador == null ? criterio : comparador.thenComparing(criterio);
+        }
+        return comparador.thenComparingInt(Usuario::getId);
+    }
+
+    private static Object valor(Usuario usuario, String propriedade) {
+        return switch (propriedade) {
+            case "id" -> usuario.getId();
+            case "version" -> usuario.getVersion();
+            case "nome" -> usuario.getNome();
+            case "email" -> usuario.getEmail();
+            case "senha" -> usuario.getSenha();
+            case "telefone" -> usuario.getTelefone();
+            default -> throw new IllegalArgumentException(propriedade);
+        };
+    }
+
+    private static boolean valorCorresponde(String propriedade, Object esperado, Object atual, ExampleMatcherAccessor regras) {
+        if (esperado == null || atual == null) {
+            return esperado == atual;
+        }
+        if (!(esperado instanceof String texto)) {
+            return Objects.equals(esperado, atual);
+        }
+        String valor = (String) atual;
+        if (regras.isIgnoreCaseForPath(propriedade)) {
+            texto = texto.toLowerCase(Locale.ROOT);
+            valor = valor.toLowerCase(Locale.ROOT);
+        }
+        return switch (regras.getStringMatcherForPath(propriedade)) {
+            case DEFAULT, EXACT -> valor.equals(texto);
+            case STARTING -> valor.startsWith(texto);
+            case ENDING -> valor.endsWith(texto);
+            case CONTAINING -> valor.contains(texto);
+            case REGEX -> Pattern.compile(texto).matcher(valor).matches();
+        };
+    }
+
+    /**
+     * Implementação da consulta fluente sobre uma lista em memória: ordenação, limite, conversão do resultado
+     * e paginação são aplicados só na leitura (all, page, stream etc.).
+     */
+    private record Consulta<T>(List<Usuario> usuarios, Sort sort, int limite, Function<Usuario, T> conversor)
+            implements FluentQuery.FetchableFluentQuery<T> {
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new Consulta<>(usuarios, this.sort.and(sort), limite, conversor);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limite) {
+            if (limite < 0) {
+                throw new IllegalArgumentException("O limite não pode ser negativo");
+            }
+            return new Consulta<>(usuarios, sort, limite, conversor);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> tipo) {
+            if (tipo == UsuarioResumo.class) {
+                return new Consulta<>(usuarios, sort, limite, usuario -> (R) UsuarioResumo.de(usuario));
+            }
+            if (tipo.isAssignableFrom(Usuario.class)) {
+                return new Consulta<>(usuarios, sort, limite, usuario -> (R) usuario);
+            }
+            throw new InvalidDataAccessApiUsageException("Projeção não disponível para usuários: " + tipo.getName());
+        }
+
+        // Todas as colunas já estão em memória: a lista de propriedades não muda o resultado
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> propriedades) {
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> resultado = all();
+            if (resultado.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, resultado.size());
+            }
+            return resultado.isEmpty() ? null : resultado.getFirst();
+        }
+
+        @Override
+        public T firstValue() {
+            List<T> resultado = all();
+            return resultado.isEmpty() ? null : resultado.getFirst();
+        }
+
+        @Override
+        public List<T> all() {
+            return ordenados().map(conversor).toList();
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            return paginar(ordenar(new ArrayList<>(usuarios), sort.and(pageable.getSort())), pageable, conversor);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return limite > 0 ? Math.min(limite, usuarios.size()) : usuarios.size();
+        }
+
+        @Override
+        public boolean exists() {
+            return !usuarios.isEmpty();
+        }
+
+        private Stream<Usuario> ordenados() {
+            Stream<Usuario> selecionados = ordenar(new ArrayList<>(usuarios), sort).stream();
+            return limite > 0 ? selecionados.limit(limite) : selecionados;
+        }
+    }
+}
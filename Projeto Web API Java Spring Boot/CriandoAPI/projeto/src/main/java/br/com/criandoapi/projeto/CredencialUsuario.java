@@ -0,0 +1,13 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Projeção mínima usada no login: apenas o ID e o hash da senha do usuário.
+ *
+ * <p>Montada diretamente na consulta JPQL, não cria entidade gerenciada, então o Hibernate
+ * não faz dirty checking nem carrega as demais colunas.</p>
+ *
+ * param id Identificador do usuário.
+ * param senha Hash BCrypt armazenado.
+ */
+public record CredencialUsuario(int id, String senha) {
+}
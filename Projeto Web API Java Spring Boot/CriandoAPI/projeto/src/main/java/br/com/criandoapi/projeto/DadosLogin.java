@@ -0,0 +1,19 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Dados enviados no login: e-mail e senha em texto puro.
+ *
+ * param email E-mail cadastrado do usuário.
+ * param senha Senha em texto puro a ser validada.
+ */
+public record DadosLogin(
+        @Email(message = "Insira um email válido!")
+        @NotBlank(message = "O email é obrigatório!")
+        String email,
+
+        @NotBlank(message = "A senha é obrigatória!")
+        String senha) {
+}
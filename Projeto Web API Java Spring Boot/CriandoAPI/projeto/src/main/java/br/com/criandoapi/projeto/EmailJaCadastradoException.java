@@ -0,0 +1,16 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o cadastro usa um e-mail que já pertence a outro usuário.
+ * Convertida em HTTP 409 (Conflict).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EmailJaCadastradoException extends RuntimeException {
+
+    public EmailJaCadastradoException(String email) {
+        super("O e-mail " + email + " já está cadastrado");
+    }
+}
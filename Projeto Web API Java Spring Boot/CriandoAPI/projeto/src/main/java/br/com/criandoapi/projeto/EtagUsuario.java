@@ -0,0 +1,78 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Geração e leitura das ETags dos usuários.
+ *
+ * <p>A ETag de um usuário é forte e derivada do ID e da coluna {@code version}, no formato {@code "id-versao"}.
+ * Como toda alteração incrementa a versão, a ETag muda sempre que o usuário muda, sem precisar
+ * calcular hash do corpo da resposta. A ETag de uma página da listagem combina os IDs e as versões da página.</p>
+ */
+public final class EtagUsuario {
+
+    private EtagUsuario() {
+    }
+
+    /**
+     * Monta a ETag (com aspas) de um usuário.
+     *
+     * param id ID do usuário.
+     * param version Versão atual do registro.
+     * return ETag no formato {@code "id-versao"}.
+     */
+    public static String de(int id, int version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Monta a ETag (com aspas) de um usuário.
+     *
+     * param usuario Resumo do usuário.
+     * return ETag no formato {@code "id-versao"}.
+     */
+    public static String de(UsuarioResumo usuario) {
+        return de(usuario.id(), usuario.version());
+    }
+
+    /**
+     * Monta a ETag (com aspas) de uma página da listagem, a partir dos IDs e das versões dos usuários da página
+     * e do cursor da próxima página. Edições (inclusive em massa ou feitas por outra instância) mudam a versão,
+     * exclusões mudam os IDs e um cadastro logo depois da última página passa a gerar um cursor, então a ETag
+     * muda sempre que a página muda. Alterações feitas direto no banco sem incrementar a versão não são percebidas.
+     *
+     * param pagina Página já buscada.
+     * return ETag no formato {@code "pquantidade-hash"}.
+     */
+    public static String dePagina(PaginaUsuarios pagina) {
+        long hash = pagina.proximo() == null ? 0 : pagina.proximo();
+        for (UsuarioResumo usuario : pagina.usuarios()) {
+            hash = 31 * (31 * hash + usuario.id()) + usuario.version();
+        }
+        return "\"p" + pagina.usuarios().size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Extrai a versão esperada do cabeçalho If-Match de uma requisição sobre o usuário informado.
+     *
+     * param ifMatch Valor do cabeçalho If-Match, ou null se ausente.
+     * param id ID do usuário alvo da requisição.
+     * return A versão esperada, ou null se o cabeçalho estiver ausente ou for {@code *} (qualquer versão).
+     * throws ConflitoVersaoException se a ETag for fraca, mal formada ou de outro usuário
+     *         (nenhuma versão do usuário pode corresponder a ela).
+     */
+    public static Integer versaoEsperada(String ifMatch, int id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+        String prefixo = "\"" + id + "-";
+        if (etag.startsWith(prefixo) && etag.endsWith("\"") && etag.length() > prefixo.length() + 1) {
+            try {
+                return Integer.parseInt(etag.substring(prefixo.length(), etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // ETag mal formada: tratada abaixo como versão que não corresponde
+            }
+        }
+        throw new ConflitoVersaoException("A ETag " + etag + " não corresponde a nenhuma versão do usuário " + id);
+    }
+}
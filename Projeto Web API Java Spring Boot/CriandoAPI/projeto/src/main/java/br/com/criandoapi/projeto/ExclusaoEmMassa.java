@@ -0,0 +1,29 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Critério da exclusão em massa (DELETE /usuarios): uma lista de IDs ou um domínio de e-mail, nunca os dois.
+ *
+ * param ids IDs dos usuários a excluir; IDs inexistentes são ignorados.
+ * param dominio Domínio do e-mail (por exemplo, "empresa-encerrada.com"); exclui todos os usuários desse domínio.
+ */
+public record ExclusaoEmMassa(
+        @Size(min = 1, message = "Informe ao menos um ID!")
+        List<@NotNull(message = "O ID não pode ser nulo!") Integer> ids,
+
+        @Pattern(regexp = "[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)+", message = "Informe um domínio válido!")
+        String dominio) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Informe a lista de IDs ou o domínio, mas não os dois!")
+    public boolean isCriterioUnico() {
+        return (ids == null) != (dominio == null);
+    }
+}
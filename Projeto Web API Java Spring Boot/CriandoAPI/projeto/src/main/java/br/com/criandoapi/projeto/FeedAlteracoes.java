@@ -0,0 +1,233 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fluxo (Server-Sent Events) das alterações de usuários, para que os painéis não precisem consultar
+ * GET /usuarios periodicamente.
+ *
+ * <p>Cada {@link UsuarioAlterado} confirmado no banco recebe um número de sequência e vira um evento SSE com
+ * {@code id} (início desta instância + sequência), {@code event} (CRIADO, ATUALIZADO ou EXCLUIDO) e, nos dados,
+ * o ID, a {@code version} e o resumo do usuário, para que o cliente aplique só a diferença.</p>
+ *
+ * <p>Os últimos {@code tamanho-historico} eventos ficam em um buffer circular. Um cliente que reconecta com
+ * {@code Last-Event-ID} recebe os eventos que perdeu; se o ID for antigo demais (ou de outra instância),
+ * recebe o evento {@code reinicio} e deve recarregar a lista completa.</p>
+ *
+ * <p>Cada assinante tem uma fila limitada, esvaziada por uma thread virtual própria. Quem publica só coloca o
+ * evento nas filas, sem esperar a rede; se a fila de um assinante lento encher, ele é desconectado e volta
+ * pelo {@code Last-Event-ID}, sem travar as alterações nem os demais assinantes.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics):</p>
+ * <ul>
+ *   <li>usuarios.feed.assinantes - conexões abertas no fluxo</li>
+ *   <li>usuarios.feed.desconectados - assinantes desconectados por não acompanharem o fluxo</li>
+ * </ul>
+ */
+@Component
+public class FeedAlteracoes {
+
+    /**
+     * Alteração com o número de sequência no fluxo.
+     */
+    private record Alteracao(long sequencia, UsuarioAlterado evento) {
+    }
+
+    /**
+     * Conexão aberta no fluxo, com a fila de eventos ainda não enviados.
+     */
+    private final class Assinante {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Alteracao> fila;
+        private volatile boolean encerrado;
+        private volatile Thread enviador;
+
+        private Assinante(SseEmitter emitter, int capacidade) {
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(capacidade);
+        }
+
+        private void encerrar() {
+            encerrado = true;
+            assinantes.remove(this);
+            Thread thread = enviador;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    // Instante de inicialização, que distingue os IDs de eventos desta instância dos de uma execução anterior
+    private final long inicio = System.currentTimeMillis();
+
+    // Buffer circular dos últimos eventos, protegido pela trava (ReentrantLock não prende threads virtuais)
+    private final Alteracao[] historico;
+    private final ReentrantLock trava = new ReentrantLock();
+    private long proximaSequencia = 1;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private final int capacidadeAssinante;
+    private final long tempoConexaoMs;
+    private final long intervaloPulsoMs;
+
+    private final Counter desconectados;
+
+    /**
+     * Construtor que dimensiona o histórico e as filas dos assinantes.
+     *
+     * param tamanhoHistorico Quantidade de eventos guardados para reconexão (usuarios.feed.tamanho-historico).
+     * param capacidadeAssinante Eventos pendentes por assinante antes de desconectá-lo (usuarios.feed.capacidade-assinante).
+     * param tempoConexao Duração máxima de cada conexão; o cliente reconecta sozinho (usuarios.feed.tempo-conexao).
+     * param intervaloPulso Intervalo do comentário enviado quando não há eventos, para manter a conexão (usuarios.feed.intervalo-pulso).
+     * param registry Registro de métricas do Micrometer.
+     */
+    public FeedAlteracoes(@Value("${usuarios.feed.tamanho-historico:1024}") int tamanhoHistorico,
+                          @Value("${usuarios.feed.capacidade-assinante:256}") int capacidadeAssinante,
+                          @Value("${usuarios.feed.tempo-conexao:30m}") Duration tempoConexao,
+                          @Value("${usuarios.feed.intervalo-pulso:15s}") Duration intervaloPulso,
+                          MeterRegistry registry) {
+        this.historico = new Alteracao[tamanhoHistorico];
+        this.capacidadeAssinante = capacidadeAssinante;
+        this.tempoConexaoMs = tempoConexao.toMillis();
+        this.intervaloPulsoMs = intervaloPulso.toMillis();
+
+        Gauge.builder("usuarios.feed.assinantes", assinantes, Set::size).register(registry);
+        this.desconectados = Counter.builder("usuarios.feed.desconectados").register(registry);
+    }
+
+    /**
+     * Registra a alteração no histórico e a entrega aos assinantes, depois do commit da transação
+     * (ou imediatamente, quando a alteração foi feita fora de transação).
+     *
+     * param evento Alteração de usuário.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(UsuarioAlterado evento) {
+        trava.lock();
+        try {
+            Alteracao alteracao = new Alteracao(proximaSequencia++, evento);
+            historico[(int) (alteracao.sequencia() % historico.length)] = alteracao;
+            for (Assinante assinante : assinantes) {
+                if (!assinante.fila.offer(alteracao)) {
+                    desconectados.increment();
+                    assinante.encerrar();
+                }
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Abre uma conexão no fluxo de alterações.
+     *
+     * param ultimoEventoId Valor do cabeçalho Last-Event-ID enviado na reconexão, ou null em uma conexão nova.
+     * return Emissor SSE da conexão.
+     */
+    public SseEmitter assinar(String ultimoEventoId) {
+        SseEmitter emitter = new SseEmitter(tempoConexaoMs);
+        Assinante assinante = new Assinante(emitter, capacidadeAssinante);
+
+        List<Alteracao> perdidas = new ArrayList<>();
+        long ultimaSequencia;
+        boolean reinicio;
+        trava.lock();
+        try {
+            ultimaSequencia = proximaSequencia - 1;
+            long maisAntiga = Math.max(1, proximaSequencia - historico.length);
+            long desde = ultimoEventoId == null ? ultimaSequencia : sequenciaDe(ultimoEventoId);
+            reinicio = desde < maisAntiga - 1 || desde > ultimaSequencia;
+            if (!reinicio) {
+                for (long sequencia = desde + 1; sequencia <= ultimaSequencia; sequencia++) {
+                    perdidas.add(historico[(int) (sequencia % historico.length)]);
+                }
+            }
+            // Registrado ainda com a trava: nenhum evento fica entre o histórico enviado e a fila
+            assinantes.add(assinante);
+        } finally {
+            trava.unlock();
+        }
+
+        emitter.onCompletion(assinante::encerrar);
+        emitter.onTimeout(assinante::encerrar);
+        emitter.onError(erro -> assinante.encerrar());
+
+        String inicial = ultimoEventoId == null ? "inicio" : reinicio ? "reinicio" : null;
+        assinante.enviador = Thread.ofVirtual().name("feed-usuarios").start(() ->
+                enviar(assinante, inicial, ultimaSequencia, perdidas));
+        return emitter;
+    }
+
+    // Laço da thread do assinante: envia o evento inicial, os eventos perdidos e depois os novos, com pulsos
+    private void enviar(Assinante assinante, String inicial, long ultimaSequencia, List<Alteracao> perdidas) {
+        SseEmitter emitter = assinante.emitter;
+        try {
+            if (inicial != null) {
+                emitter.send(SseEmitter.event().id(idDe(ultimaSequencia)).name(inicial).data(""));
+            }
+            for (Alteracao alteracao : perdidas) {
+                enviarAlteracao(emitter, alteracao);
+            }
+            while (!assinante.encerrado) {
+                Alteracao alteracao = assinante.fila.poll(intervaloPulsoMs, TimeUnit.MILLISECONDS);
+                if (alteracao == null) {
+                    emitter.send(SseEmitter.event().comment("pulso"));
+                } else {
+                    enviarAlteracao(emitter, alteracao);
+                }
+            }
+            emitter.complete();
+        } catch (InterruptedException e) {
+            // Assinante encerrado (lento, conexão fechada ou tempo esgotado)
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // O cliente fechou a conexão
+            emitter.completeWithError(e);
+        } finally {
+            assinante.encerrar();
+        }
+    }
+
+    private void enviarAlteracao(SseEmitter emitter, Alteracao alteracao) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(idDe(alteracao.sequencia()))
+                .name(alteracao.evento().tipo().name())
+                .data(alteracao.evento(), MediaType.APPLICATION_JSON));
+    }
+
+    private String idDe(long sequencia) {
+        return inicio + "-" + sequencia;
+    }
+
+    // Sequência do Last-Event-ID, ou -1 se ele for inválido ou de outra execução da aplicação
+    private long sequenciaDe(String ultimoEventoId) {
+        String prefixo = inicio + "-";
+        if (!ultimoEventoId.startsWith(prefixo)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(ultimoEventoId.substring(prefixo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom, em memória, dos e-mails já cadastrados, usado para evitar a consulta ao banco
+ * na verificação de e-mail duplicado do cadastro.
+ *
+ * <p>Um filtro de Bloom responde "com certeza ausente" ou "possivelmente presente". Como quase todo
+ * cadastro usa um e-mail novo, a resposta "ausente" dispensa a consulta na maioria das vezes; só as
+ * respostas "possivelmente presente" seguem para a consulta pelo índice único de e-mail.</p>
+ *
+ * <p>O filtro é preenchido em segundo plano depois da inicialização, percorrendo os e-mails do banco em fluxo.
+ * Até terminar, todo cadastro consulta o banco. Os e-mails criados (e os novos e-mails de usuários alterados)
+ * são adicionados pelos eventos {@link UsuarioAlterado}. Um filtro de Bloom não permite remover elementos,
+ * então as exclusões são contadas e, quando passam de um quarto dos elementos, o filtro é reconstruído do banco.
+ * Um e-mail que ficou no filtro depois de excluído só custa uma consulta a mais; e o índice único continua
+ * garantindo a unicidade mesmo se o filtro estiver atrasado.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics):</p>
+ * <ul>
+ *   <li>usuarios.emails.bloom - consultas ao filtro (tag resultado=ausente|possivel)</li>
+ *   <li>usuarios.emails.bloom.falsos-positivos - respostas "possivelmente presente" que o banco não confirmou</li>
+ *   <li>usuarios.emails.bloom.elementos - e-mails adicionados ao filtro atual</li>
+ *   <li>usuarios.emails.bloom.capacidade - e-mails suportados dentro da taxa de falsos positivos configurada</li>
+ * </ul>
+ */
+@Component
+public class FiltroBloomEmails {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroBloomEmails.class);
+
+    // Fração de exclusões (em relação aos elementos) que dispara a reconstrução do filtro
+    private static final double FRACAO_RECONSTRUCAO = 0.25;
+
+    /**
+     * Vetor de bits do filtro. Seguro para uso concorrente: os bits só passam de 0 para 1.
+     */
+    private static final class Bits {
+        private final AtomicLongArray palavras;
+        private final long tamanho;
+        private final int funcoes;
+        private final AtomicLong elementos = new AtomicLong();
+
+        private Bits(long tamanho, int funcoes) {
+            this.palavras = new AtomicLongArray((int) ((tamanho + 63) / 64));
+            this.tamanho = tamanho;
+            this.funcoes = funcoes;
+        }
+
+        private void adicionar(String email) {
+            long h1 = misturar(hash(email));
+            long h2 = misturar(h1) | 1;
+            for (int i = 0; i < funcoes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, tamanho);
+                int indice = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long atual = palavras.get(indice);
+                while ((atual & mascara) == 0) {
+                    long anterior = palavras.compareAndExchange(indice, atual, atual | mascara);
+                    if (anterior == atual) {
+                        break;
+                    }
+                    atual = anterior;
+                }
+            }
+            elementos.incrementAndGet();
+        }
+
+        private boolean contem(String email) {
+            long h1 = misturar(hash(email));
+            long h2 = misturar(h1) | 1;
+            for (int i = 0; i < funcoes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, tamanho);
+                if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a de 64 bits sobre os caracteres do e-mail
+        private static long hash(String email) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < email.length(); i++) {
+                h = (h ^ email.charAt(i)) * 0x100000001b3L;
+            }
+            return h;
+        }
+
+        // Finalizador do MurmurHash3, para espalhar bem os bits do hash
+        private static long misturar(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private final IUsuario repository;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    // Quantidade de bits e de funções de hash, calculadas a partir da memória e da taxa de falsos positivos
+    private final long tamanhoBits;
+    private final int funcoes;
+    private final long capacidade;
+
+    // Filtro em uso; vazio (e ignorado) até o primeiro preenchimento terminar
+    private volatile Bits atual;
+
+    // Filtro sendo preenchido pela reconstrução, que também recebe os e-mails criados durante ela
+    private volatile Bits emConstrucao;
+
+    private volatile boolean pronto;
+
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+
+    private final AtomicLong exclusoes = new AtomicLong();
+
+    // Métricas
+    private final Counter ausentes;
+    private final Counter possiveis;
+    private final Counter falsosPositivos;
+
+    /**
+     * Construtor que dimensiona o filtro e registra as métricas.
+     *
+     * param repository Repositório de usuários, usado para preencher o filtro.
+     * param transactionManager Gerenciador de transações, usado na leitura em fluxo.
+     * param memoria Memória do vetor de bits (usuarios.emails.bloom.memoria).
+     * param taxaFalsosPositivos Taxa de falsos positivos desejada (usuarios.emails.bloom.taxa-falsos-positivos).
+     * param registry Registro de métricas do Micrometer.
+     */
+    public FiltroBloomEmails(IUsuario repository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${usuarios.emails.bloom.memoria:1MB}") DataSize memoria,
+                             @Value("${usuarios.emails.bloom.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos,
+                             MeterRegistry registry) {
+        this.repository = repository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+
+        // Para m bits e taxa p: k = -log2(p) funções de hash, e cabem n = m * ln(2)^2 / -ln(p) elementos
+        this.tamanhoBits = Math.clamp(memoria.toBytes() * 8, 64, 64L * Integer.MAX_VALUE);
+        this.funcoes = Math.max(1, (int) Math.round(-Math.log(taxaFalsosPositivos) / Math.log(2)));
+        this.capacidade = (long) (tamanhoBits * Math.log(2) * Math.log(2) / -Math.log(taxaFalsosPositivos));
+        this.atual = new Bits(tamanhoBits, funcoes);
+
+        this.ausentes = Counter.builder("usuarios.emails.bloom").tag("resultado", "ausente").register(registry);
+        this.possiveis = Counter.builder("usuarios.emails.bloom").tag("resultado", "possivel").register(registry);
+        this.falsosPositivos = Counter.builder("usuarios.emails.bloom.falsos-positivos").register(registry);
+        Gauge.builder("usuarios.emails.bloom.elementos", this, filtro -> filtro.atual.elementos.get()).register(registry);
+        Gauge.builder("usuarios.emails.bloom.capacidade", this, filtro -> filtro.capacidade).register(registry);
+    }
+
+    /**
+     * Indica se o e-mail pode estar cadastrado. A resposta false é definitiva e dispensa a consulta ao banco.
+     *
+     * param email E-mail a verificar.
+     * return false se o e-mail com certeza não está cadastrado; true se ele pode estar (ou se o filtro ainda não está pronto).
+     */
+    public boolean possivelmenteCadastrado(String email) {
+        if (!pronto) {
+            return true;
+        }
+        if (atual.contem(normalizar(email))) {
+            possiveis.increment();
+            return true;
+        }
+        ausentes.increment();
+        return false;
+    }
+
+    /**
+     * Registra que uma resposta "possivelmente presente" não foi confirmada pelo banco.
+     */
+    public void falsoPositivo() {
+        falsosPositivos.increment();
+    }
+
+    /**
+     * Mantém o filtro atualizado com as alterações publicadas pelo UsuarioService.
+     *
+     * param evento Alteração de usuário.
+     */
+    @EventListener
+    public void aoAlterar(UsuarioAlterado evento) {
+        switch (evento.tipo()) {
+            case CRIADO, ATUALIZADO -> adicionar(evento.usuario().email());
+            case EXCLUIDO -> {
+                if (pronto && exclusoes.incrementAndGet() > atual.elementos.get() * FRACAO_RECONSTRUCAO) {
+                    reconstruirEmSegundoPlano();
+                }
+            }
+        }
+    }
+
+    /**
+     * Preenche o filtro a partir do banco quando a aplicação termina de iniciar, sem atrasar a inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        reconstruirEmSegundoPlano();
+    }
+
+    /**
+     * Reconstrói o filtro a partir do banco, percorrendo os e-mails em fluxo. O filtro anterior continua
+     * respondendo até o novo ficar pronto.
+     */
+    public void reconstruir() {
+        Bits novo = new Bits(tamanhoBits, funcoes);
+        emConstrucao = novo;
+        try {
+            transacaoLeitura.executeWithoutResult(status -> {
+                try (Stream<String> emails = repository.percorrerEmails()) {
+                    emails.forEach(email -> novo.adicionar(normalizar(email)));
+                }
+            });
+            exclusoes.set(0);
+            atual = novo;
+            pronto = true;
+            if (novo.elementos.get() > capacidade) {
+                log.warn("Filtro de e-mails com {} elementos, acima da capacidade de {}; aumente usuarios.emails.bloom.memoria",
+                        novo.elementos.get(), capacidade);
+            }
+        } finally {
+            emConstrucao = null;
+        }
+    }
+
+    private void reconstruirEmSegundoPlano() {
+        if (!reconstruindo.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("filtro-emails").start(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao preencher o filtro de e-mails; o cadastro continua consultando o banco", e);
+            } finally {
+                reconstruindo.set(false);
+            }
+        });
+    }
+
+    private void adicionar(String email) {
+        String normalizado = normalizar(email);
+        // Lê o filtro em construção antes do atual: se a reconstrução terminar no meio, o e-mail fica no novo filtro
+        Bits novo = emConstrucao;
+        atual.adicionar(normalizado);
+        if (novo != null) {
+            novo.adicionar(normalizado);
+        }
+    }
+
+    // O índice único de e-mail do MySQL não diferencia maiúsculas de minúsculas
+    private static String normalizar(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
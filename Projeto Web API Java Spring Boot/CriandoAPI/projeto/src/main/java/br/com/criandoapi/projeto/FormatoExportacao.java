@@ -0,0 +1,49 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Formatos suportados pela exportação completa de usuários.
+ * Cada formato conhece o tipo de conteúdo (Content-Type) e a extensão do arquivo gerado.
+ */
+public enum FormatoExportacao {
+
+    /** Um objeto JSON por linha (newline-delimited JSON). */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Valores separados por vírgula, com linha de cabeçalho. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * Converte o valor recebido na requisição (sem diferenciar maiúsculas e minúsculas) no formato correspondente.
+     *
+     * param valor Nome do formato, por exemplo "ndjson" ou "csv".
+     * return O formato correspondente.
+     * throws ResponseStatusException com status 400 se o formato não for suportado.
+     */
+    public static FormatoExportacao de(String valor) {
+        for (FormatoExportacao formato : values()) {
+            if (formato.extensao.equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato de exportação não suportado: " + valor);
+    }
+}
@@ -0,0 +1,268 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gravação agrupada (group commit) dos cadastros individuais de usuário.
+ *
+ * <p>Quando ativada ({@code usuarios.cadastro.agrupado.ativo=true}), os cadastros que chegam ao mesmo tempo
+ * são reunidos por uma thread própria durante no máximo {@code janela} (ou até {@code tamanho-maximo}
+ * usuários) e gravados com um único batch JDBC em uma única transação. Cada requisição fica bloqueada até
+ * o commit da transação que contém o seu usuário, então a durabilidade é a mesma do cadastro individual:
+ * nenhuma resposta 201 sai antes do commit.</p>
+ *
+ * <p>Se o grupo violar alguma restrição do banco (por exemplo, e-mail repetido), ele é refeito linha a linha
+ * e só as requisições com conflito recebem o erro. Se a fila de espera estiver cheia, ou se o commit não sair
+ * dentro de {@code tempo-maximo-espera} (banco lento ou travado), o cadastro é recusado com
+ * {@link SobrecargaException} (HTTP 503), em vez de prender a thread da requisição indefinidamente.</p>
+ *
+ * <p>O evento {@link UsuarioAlterado} de cada usuário gravado é publicado pela própria thread gravadora, logo
+ * depois do commit e antes de liberar a requisição, para que cache, índice de busca, feed e filtro de e-mails
+ * vejam todas as linhas gravadas, mesmo que a requisição tenha sido interrompida.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics):</p>
+ * <ul>
+ *   <li>usuarios.cadastro.agrupado.tamanho - usuários gravados em cada commit</li>
+ *   <li>usuarios.cadastro.agrupado.commit - tempo de cada transação do grupo</li>
+ *   <li>usuarios.cadastro.agrupado.rejeitados - cadastros recusados por fila cheia ou tempo esgotado</li>
+ * </ul>
+ */
+@Component
+public class GravacaoAgrupada {
+
+    private static final Logger log = LoggerFactory.getLogger(GravacaoAgrupada.class);
+
+    /**
+     * Cadastro aguardando gravação e o resultado devolvido à requisição. O pedido é reivindicado uma única vez:
+     * pela thread gravadora, antes de abrir a transação, ou pela requisição que desistiu de esperar.
+     */
+    private record Pedido(Usuario usuario, CompletableFuture<Usuario> resultado, AtomicBoolean reivindicado) {
+
+        Pedido(Usuario usuario) {
+            this(usuario, new CompletableFuture<>(), new AtomicBoolean());
+        }
+    }
+
+    private final IUsuario repository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventos;
+
+    private final boolean ativo;
+
+    private final long janelaNanos;
+
+    private final int tamanhoMaximo;
+
+    private final long esperaMaximaNanos;
+
+    private final BlockingQueue<Pedido> fila;
+
+    private final Thread gravador;
+
+    // Métricas
+    private final DistributionSummary tamanhoGrupo;
+    private final Timer tempoCommit;
+    private final Counter rejeitados;
+
+    /**
+     * Construtor que configura a gravação agrupada e, se ativada, inicia a thread que grava os grupos.
+     *
+     * param repository Repositório de usuários.
+     * param transactionTemplate Modelo de transação programática.
+     * param eventos Publicador do evento de criação de cada usuário gravado.
+     * param ativo Se os cadastros individuais devem ser agrupados (usuarios.cadastro.agrupado.ativo).
+     * param janela Tempo máximo que o primeiro cadastro do grupo espera por outros (usuarios.cadastro.agrupado.janela).
+     * param tamanhoMaximo Quantidade máxima de usuários por commit (usuarios.cadastro.agrupado.tamanho-maximo).
+     * param capacidadeFila Quantidade máxima de cadastros aguardando (usuarios.cadastro.agrupado.capacidade-fila).
+     * param esperaMaxima Tempo máximo que uma requisição espera pelo commit (usuarios.cadastro.agrupado.tempo-maximo-espera).
+     * param registry Registro de métricas do Micrometer.
+     */
+    public GravacaoAgrupada(IUsuario repository,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventos,
+                            @Value("${usuarios.cadastro.agrupado.ativo:false}") boolean ativo,
+                            @Value("${usuarios.cadastro.agrupado.janela:5ms}") Duration janela,
+                            @Value("${usuarios.cadastro.agrupado.tamanho-maximo:100}") int tamanhoMaximo,
+                            @Value("${usuarios.cadastro.agrupado.capacidade-fila:10000}") int capacidadeFila,
+                            @Value("${usuarios.cadastro.agrupado.tempo-maximo-espera:10s}") Duration esperaMaxima,
+                            MeterRegistry registry) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventos = eventos;
+        this.ativo = ativo;
+        this.janelaNanos = janela.toNanos();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+
+        this.tamanhoGrupo = DistributionSummary.builder("usuarios.cadastro.agrupado.tamanho").register(registry);
+        this.tempoCommit = Timer.builder("usuarios.cadastro.agrupado.commit").register(registry);
+        this.rejeitados = Counter.builder("usuarios.cadastro.agrupado.rejeitados").register(registry);
+
+        this.gravador = ativo ? Thread.ofPlatform().daemon().name("gravacao-agrupada").start(this::gravarGrupos) : null;
+        if (ativo) {
+            log.info("Cadastro agrupado ativo: janela de {} e até {} usuários por commit", janela, tamanhoMaximo);
+        }
+    }
+
+    /**
+     * Indica se os cadastros individuais devem passar pela gravação agrupada.
+     *
+     * return true se a gravação agrupada estiver ativada.
+     */
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Grava o usuário junto com os demais cadastros simultâneos e aguarda o commit.
+     *
+     * <p>O 503 por tempo esgotado só acontece enquanto o pedido ainda não entrou em uma transação. Se a thread
+     * gravadora já o reivindicou, a requisição espera o resultado desse commit: nenhum usuário fica gravado com
+     * uma resposta de erro.</p>
+     *
+     * param usuario Usuário a gravar, com a senha já criptografada.
+     * return O mesmo usuário, com o ID gerado e a versão inicial.
+     * throws DataIntegrityViolationException se o usuário violar alguma restrição do banco.
+     * throws SobrecargaException se a fila de cadastros estiver cheia ou o commit não sair a tempo.
+     */
+    public Usuario inserir(Usuario usuario) {
+        Pedido pedido = new Pedido(usuario);
+        if (!fila.offer(pedido)) {
+            rejeitados.increment();
+            throw new SobrecargaException("Fila de cadastros cheia", 1);
+        }
+        try {
+            try {
+                return pedido.resultado().get(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (desistir(pedido)) {
+                    rejeitados.increment();
+                    throw new SobrecargaException("Tempo esgotado aguardando a gravação do usuário", 1);
+                }
+                // A thread gravadora já incluiu o pedido em uma transação: espera o resultado do commit
+                return pedido.resultado().get();
+            }
+        } catch (InterruptedException e) {
+            desistir(pedido);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a gravação do usuário", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Reivindica o pedido pela requisição e o tira da fila; devolve false se a thread gravadora já o reivindicou
+    private boolean desistir(Pedido pedido) {
+        if (!pedido.reivindicado().compareAndSet(false, true)) {
+            return false;
+        }
+        fila.remove(pedido);
+        return true;
+    }
+
+    // Laço da thread gravadora: espera o primeiro pedido, completa o grupo dentro da janela e grava
+    private void gravarGrupos() {
+        List<Pedido> grupo = new ArrayList<>(tamanhoMaximo);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                grupo.add(fila.take());
+                long limite = System.nanoTime() + janelaNanos;
+                while (grupo.size() < tamanhoMaximo) {
+                    fila.drainTo(grupo, tamanhoMaximo - grupo.size());
+                    long restante = limite - System.nanoTime();
+                    if (grupo.size() >= tamanhoMaximo || restante <= 0) {
+                        break;
+                    }
+                    Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+                    if (proximo == null) {
+                        break;
+                    }
+                    grupo.add(proximo);
+                }
+                gravar(grupo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                grupo.forEach(pedido -> pedido.resultado()
+                        .completeExceptionally(new SobrecargaException("Aplicação encerrando", 1)));
+            } catch (RuntimeException e) {
+                grupo.forEach(pedido -> pedido.resultado().completeExceptionally(e));
+            } finally {
+                grupo.clear();
+            }
+        }
+        List<Pedido> pendentes = new ArrayList<>();
+        fila.drainTo(pendentes);
+        pendentes.forEach(pedido -> pedido.resultado()
+                .completeExceptionally(new SobrecargaException("Aplicação encerrando", 1)));
+    }
+
+    // Grava o grupo em uma transação; se houver conflito, refaz linha a linha para isolar os pedidos com erro
+    private void gravar(List<Pedido> grupo) {
+        // Reivindica os pedidos antes da transação; os abandonados pela requisição já receberam 503 e ficam de fora
+        grupo.removeIf(pedido -> !pedido.reivindicado().compareAndSet(false, true));
+        if (grupo.isEmpty()) {
+            return;
+        }
+        List<Usuario> usuarios = grupo.stream().map(Pedido::usuario).toList();
+        tamanhoGrupo.record(usuarios.size());
+        try {
+            tempoCommit.record(() -> transactionTemplate.executeWithoutResult(status -> repository.inserirEmLote(usuarios)));
+            grupo.forEach(this::concluir);
+        } catch (DataIntegrityViolationException e) {
+            for (Pedido pedido : grupo) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> repository.inserirEmLote(List.of(pedido.usuario())));
+                } catch (RuntimeException conflito) {
+                    pedido.resultado().completeExceptionally(conflito);
+                    continue;
+                }
+                concluir(pedido);
+            }
+        }
+    }
+
+    // Publica o evento do usuário gravado e só então libera a requisição
+    private void concluir(Pedido pedido) {
+        eventos.publishEvent(UsuarioAlterado.criado(UsuarioResumo.de(pedido.usuario())));
+        pedido.resultado().complete(pedido.usuario());
+    }
+
+    /**
+     * Encerra a thread gravadora quando o contexto do Spring é finalizado.
+     * Os cadastros ainda na fila são recusados.
+     */
+    @PreDestroy
+    public void encerrar() {
+        if (gravador != null) {
+            gravador.interrupt();
+        }
+    }
+}
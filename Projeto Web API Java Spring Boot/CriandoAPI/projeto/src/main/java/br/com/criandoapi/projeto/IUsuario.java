@@ -1,7 +1,20 @@
 package br.com.criandoapi.projeto;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface que estende `CrudRepository` para operações de banco de dados relacionadas à entidade `Usuario`.
@@ -9,7 +22,7 @@ import org.springframework.data.repository.CrudRepository;
  * param <Usuario> Tipo da entidade gerenciada por este repositório.
  * param <Integer> Tipo da chave primária da entidade `Usuario`.
  */
-public interface IUsuario extends JpaRepository<Usuario, Integer> {
+public interface IUsuario extends JpaRepository<Usuario, Integer>, IUsuarioJdbc {
 
     /**
      * Herda métodos CRUD básicos do `CrudRepository`, como:
@@ -23,5 +36,165 @@ public interface IUsuario extends JpaRepository<Usuario, Integer> {
      * Exemplo:
      * - `findByNome(String nome)`: Busca usuários pelo nome.
      * - `findByEmail(String email)`: Busca usuários pelo e-mail.
+     *
+     * Operações que precisam de JDBC puro (como a inserção em lote) vêm do fragmento `IUsuarioJdbc`.
+     */
+
+    /**
+     * Busca uma página de usuários usando paginação por cursor (keyset) sobre a chave primária.
+     * Seleciona apenas as colunas do resumo, sem a senha, e usa o índice da chave primária
+     * ({@code where id > cursor order by id}), de modo que o custo não cresce com o deslocamento.
+     *
+     * param cursor ID do último usuário da página anterior (0 para a primeira página).
+     * param limite Quantidade máxima de registros retornados.
+     * return Lista de resumos de usuários ordenados por ID.
+     */
+    @Query("select new br.com.criandoapi.projeto.UsuarioResumo(u.id, u.version, u.nome, u.email, u.telefone) " +
+            "from Usuario u where u.id > :cursor order by u.id")
+    List<UsuarioResumo> buscarPagina(@Param("cursor") int cursor, Limit limite);
+
+    /**
+     * Percorre todos os usuários em ordem de ID como um fluxo (Stream), para exportações completas.
+     *
+     * <p>As linhas são lidas do cursor JDBC em blocos de {@code fetchSize} registros e convertidas
+     * diretamente em {@link UsuarioResumo}, sem criar entidades gerenciadas. Assim o contexto de
+     * persistência não cresce e o uso de memória fica constante, seja qual for o tamanho da tabela.</p>
+     *
+     * <p>Deve ser chamado dentro de uma transação (de preferência somente leitura) e o Stream
+     * precisa ser fechado ao final, para liberar o cursor e a conexão.</p>
+     *
+     * return Fluxo com os resumos de todos os usuários.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new br.com.criandoapi.projeto.UsuarioResumo(u.id, u.version, u.nome, u.email, u.telefone) " +
+            "from Usuario u order by u.id")
+    Stream<UsuarioResumo> percorrerTodos();
+
+    /**
+     * Percorre os e-mails de todos os usuários como um fluxo, para preencher o filtro de e-mails cadastrados.
+     * Deve ser chamado dentro de uma transação e o Stream precisa ser fechado ao final.
+     *
+     * return Fluxo com os e-mails cadastrados.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.email from Usuario u")
+    Stream<String> percorrerEmails();
+
+    /**
+     * Indica se existe usuário com o e-mail informado, usando o índice único de e-mail.
+     *
+     * param email E-mail a verificar.
+     * return true se o e-mail já estiver cadastrado.
+     */
+    boolean existsByEmail(String email);
+
+    /**
+     * Busca somente o ID e o hash da senha do usuário com o e-mail informado, para o login.
+     * A consulta usa o índice único de e-mail e não carrega a entidade completa.
+     * Roda em transação somente leitura, então pode ser atendida por uma réplica.
+     *
+     * param email E-mail do usuário.
+     * return Credencial do usuário, ou vazio se o e-mail não estiver cadastrado.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new br.com.criandoapi.projeto.CredencialUsuario(u.id, u.senha) from Usuario u where u.email = :email")
+    Optional<CredencialUsuario> buscarCredencialPorEmail(@Param("email") String email);
+
+    /**
+     * Busca o resumo (sem a senha) de um usuário pelo ID, sem criar entidade gerenciada.
+     *
+     * param id ID do usuário.
+     * return Resumo do usuário, ou vazio se não existir.
+     */
+    @Query("select new br.com.criandoapi.projeto.UsuarioResumo(u.id, u.version, u.nome, u.email, u.telefone) " +
+            "from Usuario u where u.id = :id")
+    Optional<UsuarioResumo> buscarResumoPorId(@Param("id") int id);
+
+    /**
+     * Busca somente o hash da senha armazenada de um usuário pelo ID, para saber se a senha recebida em uma
+     * edição é exatamente a já gravada (e não precisa de um novo BCrypt).
+     *
+     * param id ID do usuário.
+     * return Hash da senha, ou vazio se o usuário não existir.
+     */
+    @Query("select u.senha from Usuario u where u.id = :id")
+    Optional<String> buscarSenhaPorId(@Param("id") int id);
+
+    /**
+     * Exclui o usuário somente se ele ainda estiver na versão informada, com um único DELETE
+     * (sem carregar a entidade antes).
+     *
+     * param id ID do usuário.
+     * param version Versão esperada do registro.
+     * return Quantidade de linhas excluídas (0 se o usuário não existir ou a versão não conferir).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id and u.version = :version")
+    int excluirSeVersao(@Param("id") int id, @Param("version") int version);
+
+    /**
+     * Dentre os IDs informados, devolve os que existem, em ordem, consultando apenas o índice da chave primária.
+     *
+     * param ids IDs a conferir (um bloco da exclusão em massa).
+     * return IDs existentes, em ordem crescente.
+     */
+    @Query("select u.id from Usuario u where u.id in :ids order by u.id")
+    List<Integer> buscarIdsExistentes(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Busca os IDs dos usuários com e-mail no domínio informado, paginando por cursor sobre a chave primária.
+     *
+     * <p>O filtro é um sufixo ({@code like '%@dominio'}), que não usa o índice de e-mail; por isso a varredura
+     * segue a chave primária a partir do cursor, e o conjunto de blocos percorre a tabela uma única vez.</p>
+     *
+     * param dominio Domínio do e-mail, sem o "@" (não pode conter os curingas % e _).
+     * param cursor Maior ID já processado (0 para começar do início).
+     * param limite Quantidade máxima de IDs devolvidos.
+     * return IDs encontrados, em ordem crescente.
+     */
+    @Query("select u.id from Usuario u where u.id > :cursor and u.email like concat('%@', :dominio) order by u.id")
+    List<Integer> buscarIdsPorDominio(@Param("dominio") String dominio, @Param("cursor") int cursor, Limit limite);
+
+    /**
+     * Busca os resumos (sem a senha) dos usuários com os IDs informados, sem criar entidades gerenciadas.
+     *
+     * param ids IDs dos usuários.
+     * return Resumos dos usuários existentes, em ordem de ID.
+     */
+    @Query("select new br.com.criandoapi.projeto.UsuarioResumo(u.id, u.version, u.nome, u.email, u.telefone) " +
+            "from Usuario u where u.id in :ids order by u.id")
+    List<UsuarioResumo> buscarResumosPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Exclui todos os usuários com os IDs informados com um único DELETE, sem carregar as entidades.
+     *
+     * param ids IDs dos usuários (limitar o tamanho da lista ao bloco configurado).
+     * return Quantidade de linhas excluídas.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Usuario u where u.id in :ids")
+    int excluirPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Altera o nome e/ou o telefone de todos os usuários com os IDs informados com um único UPDATE,
+     * sem carregar as entidades. Campos nulos não são alterados, e a versão de cada linha alterada é incrementada.
+     *
+     * param ids IDs dos usuários (limitar o tamanho da lista ao bloco configurado).
+     * param nome Novo nome, ou null para manter o atual.
+     * param telefone Novo telefone, ou null para manter o atual.
+     * return Quantidade de linhas alteradas.
      */
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.nome = coalesce(:nome, u.nome), u.telefone = coalesce(:telefone, u.telefone), " +
+            "u.version = u.version + 1 where u.id in :ids")
+    int atualizarEmMassa(@Param("ids") Collection<Integer> ids, @Param("nome") String nome, @Param("telefone") String telefone);
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package br.com.criandoapi.projeto;
+
+import java.util.List;
+
+/**
+ * Fragmento do repositório de usuários com operações implementadas diretamente em JDBC.
+ *
+ * <p>É combinado com {@link IUsuario} pelo Spring Data: a implementação fica em
+ * {@link IUsuarioJdbcImpl}, encontrada pelo sufixo "Impl".</p>
+ */
+public interface IUsuarioJdbc {
+
+    /**
+     * Insere vários usuários usando batch JDBC (um único envio ao banco por bloco).
+     *
+     * <p>O Hibernate desativa o batch de inserts quando a chave primária usa {@code GenerationType.IDENTITY},
+     * por isso esta operação não passa pelo EntityManager. Os IDs gerados são preenchidos nos próprios
+     * objetos recebidos. Deve ser chamado dentro de uma transação.</p>
+     *
+     * param usuarios Usuários a inserir, com a senha já criptografada.
+     */
+    void inserirEmLote(List<Usuario> usuarios);
+
+    /**
+     * Atualiza somente os campos informados (não nulos) de um usuário com um único UPDATE dinâmico,
+     * incrementando a coluna de versão.
+     *
+     * <p>Se {@code versao} for informada, ela entra na cláusula WHERE (controle de concorrência otimista sem
+     * ler o registro antes): se outra requisição já tiver alterado o usuário, nenhuma linha é atualizada.</p>
+     *
+     * param id ID do usuário.
+     * param versao Versão esperada do registro, ou null para não verificar.
+     * param nome Novo nome, ou null para manter.
+     * param email Novo e-mail, ou null para manter.
+     * param senha Novo hash da senha, ou null para manter.
+     * param telefone Novo telefone, ou null para manter.
+     * return Quantidade de linhas atualizadas (0 se o usuário não existir ou a versão não conferir).
+     */
+    int atualizarCampos(int id, Integer versao, String nome, String email, String senha, String telefone);
+}
@@ -0,0 +1,83 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação JDBC do fragmento {@link IUsuarioJdbc}.
+ * Usa o mesmo DataSource (e a mesma transação) do JPA através do JdbcTemplate.
+ */
+class IUsuarioJdbcImpl implements IUsuarioJdbc {
+
+    private static final String SQL_INSERIR =
+            "insert into usuarios (version, nome, email, senha, telefone) values (0, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    IUsuarioJdbcImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void inserirEmLote(List<Usuario> usuarios) {
+        if (usuarios.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexao -> {
+            try (PreparedStatement ps = conexao.prepareStatement(SQL_INSERIR, Statement.RETURN_GENERATED_KEYS)) {
+                for (Usuario usuario : usuarios) {
+                    ps.setString(1, usuario.getNome());
+                    ps.setString(2, usuario.getEmail());
+                    ps.setString(3, usuario.getSenha());
+                    ps.setString(4, usuario.getTelefone());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // As chaves geradas voltam na mesma ordem em que as linhas foram adicionadas ao batch
+                try (ResultSet chaves = ps.getGeneratedKeys()) {
+                    for (Usuario usuario : usuarios) {
+                        if (!chaves.next()) {
+                            break;
+                        }
+                        usuario.setId(chaves.getInt(1));
+                        usuario.setVersion(0);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int atualizarCampos(int id, Integer versao, String nome, String email, String senha, String telefone) {
+        StringBuilder sql = new StringBuilder("update usuarios set version = version + 1");
+        List<Object> parametros = new ArrayList<>();
+        adicionarCampo(sql, parametros, "nome", nome);
+        adicionarCampo(sql, parametros, "email", email);
+        adicionarCampo(sql, parametros, "senha", senha);
+        adicionarCampo(sql, parametros, "telefone", telefone);
+
+        sql.append(" where id = ?");
+        parametros.add(id);
+        if (versao != null) {
+            sql.append(" and version = ?");
+            parametros.add(versao);
+        }
+        return jdbcTemplate.update(sql.toString(), parametros.toArray());
+    }
+
+    // Inclui "coluna = ?" no SET apenas quando o valor foi informado
+    private static void adicionarCampo(StringBuilder sql, List<Object> parametros, String coluna, String valor) {
+        if (valor != null) {
+            sql.append(", ").append(coluna).append(" = ?");
+            parametros.add(valor);
+        }
+    }
+}
@@ -0,0 +1,603 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido, em memória, do nome e do e-mail dos usuários, usado pela busca por trecho
+ * (GET /usuarios/search) no lugar de um {@code LIKE '%x%'} que percorreria a tabela inteira.
+ *
+ * <p>Os textos são normalizados (minúsculas, sem acentos) e quebrados em trigramas; cada trigrama aponta para
+ * a lista ordenada dos IDs que o contêm ({@code int[]}). Uma busca com 3 ou mais caracteres intersecta as listas
+ * dos trigramas do termo e confere o trecho só nos candidatos. Para termos de 1 ou 2 caracteres, também são
+ * indexados os prefixos de cada palavra (partes do nome e do e-mail separadas por espaço, ponto, arroba etc.).</p>
+ *
+ * <p>Os resultados são ordenados por relevância: nome ou e-mail igual ao termo, depois começando com ele,
+ * depois com alguma palavra começando com ele e, por fim, contendo o termo; em cada faixa, nomes mais curtos
+ * primeiro. Só os {@link #JANELA_MAXIMA} primeiros resultados podem ser paginados.</p>
+ *
+ * <p>O índice é preenchido em segundo plano depois da inicialização, percorrendo os usuários do banco em fluxo,
+ * e mantido pelos eventos {@link UsuarioAlterado}. Enquanto o preenchimento não termina, as buscas respondem
+ * com o que já foi indexado e {@code completo=false}.</p>
+ *
+ * <p>Como no {@link CacheUsuarios}, eventos e linhas lidas do banco são aplicados comparando a coluna
+ * {@code version}: um usuário só substitui o já indexado se tiver versão maior, então um evento atrasado não
+ * desfaz uma atualização mais nova. Os IDs excluídos ficam marcados (um bit por ID, que nunca é reaproveitado)
+ * e não voltam ao índice por um evento ou uma leitura atrasada.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics):</p>
+ * <ul>
+ *   <li>usuarios.busca.usuarios - usuários indexados</li>
+ *   <li>usuarios.busca.gramas - trigramas e prefixos distintos</li>
+ *   <li>usuarios.busca.memoria - memória estimada do índice, em bytes</li>
+ * </ul>
+ */
+@Component
+public class IndiceBuscaUsuarios {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBuscaUsuarios.class);
+
+    /**
+     * Quantidade máxima de resultados que podem ser paginados (página x tamanho).
+     */
+    public static final int JANELA_MAXIMA = 1000;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    // Faixas de relevância (menor = mais relevante)
+    private static final int IGUAL = 0;
+    private static final int COMECA = 1;
+    private static final int PALAVRA_COMECA = 2;
+    private static final int CONTEM = 3;
+
+    // Linhas lidas do banco por vez (cada bloco é indexado com uma única aquisição da trava)
+    private static final int TAMANHO_BLOCO = 1000;
+
+    /**
+     * Usuário indexado: o resumo devolvido na busca e o nome e o e-mail normalizados.
+     */
+    private record Documento(UsuarioResumo usuario, String nome, String email) {
+    }
+
+    /**
+     * Lista ordenada de IDs de um trigrama ou prefixo.
+     */
+    private static final class ListaIds {
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        // Devolve quantos bytes a lista cresceu
+        private long adicionar(int id) {
+            int posicao = tamanho == 0 || ids[tamanho - 1] < id ? tamanho : Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0 && posicao < tamanho) {
+                return 0;
+            }
+            posicao = posicao < 0 ? -posicao - 1 : posicao;
+            long crescimento = 0;
+            if (tamanho == ids.length) {
+                crescimento = (long) ids.length * 4;
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+            return crescimento;
+        }
+
+        private void remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+        }
+    }
+
+    /**
+     * Mapa de grama para lista de IDs, com chaves long primitivas: endereçamento aberto com sondagem linear,
+     * como o índice de e-mail do {@link RepositorioUsuariosMemoria}. Uma posição sem lista está livre.
+     */
+    private static final class MapaGramas {
+        private long[] chaves = new long[1024];
+        private ListaIds[] listas = new ListaIds[1024];
+        private int tamanho;
+
+        private static int espalhar(long chave) {
+            long hash = chave * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private ListaIds buscar(long chave) {
+            int mascara = chaves.length - 1;
+            for (int i = espalhar(chave) & mascara; listas[i] != null; i = (i + 1) & mascara) {
+                if (chaves[i] == chave) {
+                    return listas[i];
+                }
+            }
+            return null;
+        }
+
+        // Inclui uma chave que ainda não está no mapa; devolve quantos bytes a tabela cresceu
+        private long colocar(long chave, ListaIds lista) {
+            long crescimento = 0;
+            if (tamanho * 2 >= chaves.length) {
+                long[] chavesAnteriores = chaves;
+                ListaIds[] listasAnteriores = listas;
+                chaves = new long[chavesAnteriores.length * 2];
+                listas = new ListaIds[chavesAnteriores.length * 2];
+                for (int i = 0; i < chavesAnteriores.length; i++) {
+                    if (listasAnteriores[i] != null) {
+                        colocarNaTabela(chavesAnteriores[i], listasAnteriores[i]);
+                    }
+                }
+                crescimento = (long) chavesAnteriores.length * 12;
+            }
+            colocarNaTabela(chave, lista);
+            tamanho++;
+            return crescimento;
+        }
+
+        private void colocarNaTabela(long chave, ListaIds lista) {
+            int mascara = chaves.length - 1;
+            int i = espalhar(chave) & mascara;
+            while (listas[i] != null) {
+                i = (i + 1) & mascara;
+            }
+            chaves[i] = chave;
+            listas[i] = lista;
+        }
+
+        // Remove a chave e puxa para trás as entradas seguintes da sequência, para não deixar buracos na sondagem
+        private void remover(long chave) {
+            int mascara = chaves.length - 1;
+            int livre = espalhar(chave) & mascara;
+            while (listas[livre] != null && chaves[livre] != chave) {
+                livre = (livre + 1) & mascara;
+            }
+            if (listas[livre] == null) {
+                return;
+            }
+            for (int j = (livre + 1) & mascara; listas[j] != null; j = (j + 1) & mascara) {
+                int origem = espalhar(chaves[j]) & mascara;
+                if (((j - origem) & mascara) >= ((j - livre) & mascara)) {
+                    chaves[livre] = chaves[j];
+                    listas[livre] = listas[j];
+                    livre = j;
+                }
+            }
+            chaves[livre] = 0;
+            listas[livre] = null;
+            tamanho--;
+        }
+    }
+
+    /**
+     * Conteúdo do índice. A reconstrução monta um novo enquanto o atual continua respondendo.
+     */
+    private static final class Indice {
+        private final MapaGramas gramas = new MapaGramas();
+        private Documento[] documentos = new Documento[1024];
+        private int quantidade;
+
+        // Começa com as tabelas vazias: documentos (4 bytes por posição) e gramas (chave de 8 e referência de 4)
+        private long bytes = 1024 * 4 + 1024 * 12;
+
+        // IDs excluídos, para que um evento ou uma leitura do banco atrasados não os tragam de volta
+        private final BitSet excluidos = new BitSet();
+
+        private void gravar(Documento documento) {
+            int id = documento.usuario().id();
+            if (id >= documentos.length) {
+                int tamanhoAnterior = documentos.length;
+                documentos = Arrays.copyOf(documentos, Math.max(tamanhoAnterior * 2, id + 1));
+                bytes += (long) (documentos.length - tamanhoAnterior) * 4;
+            }
+            Documento anterior = documentos[id];
+            if (anterior != null) {
+                remover(anterior);
+            }
+            documentos[id] = documento;
+            quantidade++;
+            bytes += tamanhoEstimado(documento);
+            for (long grama : gramas(documento)) {
+                ListaIds lista = gramas.buscar(grama);
+                if (lista == null) {
+                    lista = new ListaIds();
+                    bytes += gramas.colocar(grama, lista);
+                    bytes += 40 + 16;
+                }
+                bytes += lista.adicionar(id);
+            }
+        }
+
+        // Grava só se o usuário não foi excluído e é mais novo que o indexado (evento ou linha lida do banco)
+        private void gravarSeMaisNovo(Documento documento) {
+            int id = documento.usuario().id();
+            if (excluidos.get(id)) {
+                return;
+            }
+            Documento anterior = id < documentos.length ? documentos[id] : null;
+            if (anterior == null || documento.usuario().version() > anterior.usuario().version()) {
+                gravar(documento);
+            }
+        }
+
+        private void excluir(int id) {
+            excluidos.set(id);
+            if (id < documentos.length && documentos[id] != null) {
+                remover(documentos[id]);
+                documentos[id] = null;
+            }
+        }
+
+        private void remover(Documento documento) {
+            for (long grama : gramas(documento)) {
+                ListaIds lista = gramas.buscar(grama);
+                if (lista != null) {
+                    lista.remover(documento.usuario().id());
+                    if (lista.tamanho == 0) {
+                        gramas.remover(grama);
+                        bytes -= 40 + (long) lista.ids.length * 4;
+                    }
+                }
+            }
+            quantidade--;
+            bytes -= tamanhoEstimado(documento);
+        }
+    }
+
+    private final IUsuario repository;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Índice em uso e o que está sendo montado pela reconstrução (que também recebe os eventos durante ela)
+    private Indice atual = new Indice();
+    private Indice emConstrucao;
+
+    private volatile boolean completo;
+
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+
+    // Uma reconstrução por vez: a que chegar depois espera e recomeça a partir do banco
+    private final ReentrantLock reconstrucao = new ReentrantLock();
+
+    /**
+     * Construtor que registra as métricas do índice.
+     *
+     * param repository Repositório de usuários, usado para preencher o índice.
+     * param transactionManager Gerenciador de transações, usado na leitura em fluxo.
+     * param registry Registro de métricas do Micrometer.
+     */
+    public IndiceBuscaUsuarios(IUsuario repository, PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.repository = repository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+
+        Gauge.builder("usuarios.busca.usuarios", this, indice -> indice.lerAtual(i -> i.quantidade)).register(registry);
+        Gauge.builder("usuarios.busca.gramas", this, indice -> indice.lerAtual(i -> i.gramas.tamanho)).register(registry);
+        Gauge.builder("usuarios.busca.memoria", this, indice -> indice.lerAtual(i -> i.bytes))
+                .baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * Busca usuários cujo nome ou e-mail contenha o termo, ignorando maiúsculas e acentos.
+     *
+     * param termo Trecho do nome ou do e-mail.
+     * param pagina Página desejada, a partir de 0.
+     * param tamanho Quantidade de usuários por página (máximo {@link UsuarioService#TAMANHO_MAXIMO_PAGINA}).
+     * return Página de resultados, em ordem de relevância, com o total de usuários encontrados.
+     */
+    public ResultadoBusca buscar(String termo, int pagina, int tamanho) {
+        String normalizado = normalizar(termo == null ? "" : termo.strip());
+        int limite = Math.clamp(tamanho, 1, UsuarioService.TAMANHO_MAXIMO_PAGINA);
+        int inicio = Math.clamp(pagina, 0, JANELA_MAXIMA) * limite;
+        if (normalizado.isEmpty()) {
+            return new ResultadoBusca(List.of(), 0, pagina, completo);
+        }
+
+        // Chave de ordenação: faixa de relevância, tamanho do nome e ID, em um único long
+        int janela = Math.min(inicio + limite, JANELA_MAXIMA);
+        PriorityQueue<Long> melhores = new PriorityQueue<>(Collections.reverseOrder());
+        List<UsuarioResumo> usuarios = new ArrayList<>(limite);
+        int total = 0;
+
+        trava.readLock().lock();
+        try {
+            Indice indice = atual;
+            for (int id : candidatos(indice, normalizado)) {
+                Documento documento = indice.documentos[id];
+                int faixa = relevancia(documento, normalizado);
+                if (faixa < 0) {
+                    continue;
+                }
+                total++;
+                long chave = (long) faixa << 48 | (long) Math.min(documento.nome().length(), 0xFFFF) << 32 | id;
+                if (melhores.size() < janela) {
+                    melhores.add(chave);
+                } else if (janela > 0 && chave < melhores.peek()) {
+                    melhores.poll();
+                    melhores.add(chave);
+                }
+            }
+
+            Long[] ordenados = melhores.toArray(new Long[0]);
+            Arrays.sort(ordenados);
+            for (int i = inicio; i < ordenados.length; i++) {
+                usuarios.add(indice.documentos[(int) (long) ordenados[i]].usuario());
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        return new ResultadoBusca(usuarios, total, pagina, completo);
+    }
+
+    /**
+     * Mantém o índice atualizado com as alterações publicadas pelo UsuarioService.
+     *
+     * param evento Alteração de usuário.
+     */
+    @EventListener
+    public void aoAlterar(UsuarioAlterado evento) {
+        trava.writeLock().lock();
+        try {
+            for (Indice indice : new Indice[]{atual, emConstrucao}) {
+                if (indice == null) {
+                    continue;
+                }
+                if (evento.tipo() == UsuarioAlterado.Tipo.EXCLUIDO) {
+                    indice.excluir(evento.id());
+                } else {
+                    indice.gravarSeMaisNovo(documento(evento.usuario()));
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Preenche o índice a partir do banco quando a aplicação termina de iniciar, sem atrasar a inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (!reconstruindo.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("indice-busca").start(() -> {
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao preencher o índice de busca; as buscas respondem só com os usuários alterados depois da inicialização", e);
+            } finally {
+                reconstruindo.set(false);
+            }
+        });
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco, percorrendo os usuários em fluxo. O índice anterior continua
+     * respondendo até o novo ficar pronto.
+     */
+    public void reconstruir() {
+        reconstrucao.lock();
+        try {
+            reconstruirSozinho();
+        } finally {
+            reconstrucao.unlock();
+        }
+    }
+
+    private void reconstruirSozinho() {
+        Indice novo = new Indice();
+        trava.writeLock().lock();
+        try {
+            emConstrucao = novo;
+        } finally {
+            trava.writeLock().unlock();
+        }
+
+        try {
+            transacaoLeitura.executeWithoutResult(status -> {
+                try (Stream<UsuarioResumo> usuarios = repository.percorrerTodos()) {
+                    List<Documento> bloco = new ArrayList<>(TAMANHO_BLOCO);
+                    usuarios.forEach(usuario -> {
+                        bloco.add(documento(usuario));
+                        if (bloco.size() == TAMANHO_BLOCO) {
+                            indexarBloco(novo, bloco);
+                        }
+                    });
+                    indexarBloco(novo, bloco);
+                }
+            });
+            trava.writeLock().lock();
+            try {
+                atual = novo;
+            } finally {
+                trava.writeLock().unlock();
+            }
+            completo = true;
+            log.info("Índice de busca com {} usuários e {} gramas (~{} KB)", novo.quantidade, novo.gramas.tamanho, novo.bytes / 1024);
+        } finally {
+            trava.writeLock().lock();
+            try {
+                emConstrucao = null;
+            } finally {
+                trava.writeLock().unlock();
+            }
+        }
+    }
+
+    private void indexarBloco(Indice indice, List<Documento> bloco) {
+        trava.writeLock().lock();
+        try {
+            for (Documento documento : bloco) {
+                indice.gravarSeMaisNovo(documento);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        bloco.clear();
+    }
+
+    private <T extends Number> double lerAtual(Function<Indice, T> leitura) {
+        trava.readLock().lock();
+        try {
+            return leitura.apply(atual).doubleValue();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // IDs que contêm todos os trigramas do termo (ou, para termos curtos, alguma palavra com esse prefixo)
+    private static int[] candidatos(Indice indice, String termo) {
+        long[] chaves = termo.length() >= 3 ? trigramas(termo) : new long[]{prefixo(termo, 0, termo.length())};
+        ListaIds[] listas = new ListaIds[chaves.length];
+        for (int i = 0; i < chaves.length; i++) {
+            listas[i] = indice.gramas.buscar(chaves[i]);
+            if (listas[i] == null) {
+                return new int[0];
+            }
+        }
+        // Começa pela lista mais curta, para que as interseções seguintes sejam as mais baratas
+        Arrays.sort(listas, (a, b) -> Integer.compare(a.tamanho, b.tamanho));
+        int[] resultado = Arrays.copyOf(listas[0].ids, listas[0].tamanho);
+        for (int i = 1; i < listas.length && resultado.length > 0; i++) {
+            resultado = intersectar(resultado, listas[i]);
+        }
+        return resultado;
+    }
+
+    private static int[] intersectar(int[] ids, ListaIds lista) {
+        int[] resultado = new int[ids.length];
+        int quantidade = 0;
+        int inicio = 0;
+        for (int id : ids) {
+            int posicao = Arrays.binarySearch(lista.ids, inicio, lista.tamanho, id);
+            if (posicao >= 0) {
+                resultado[quantidade++] = id;
+                inicio = posicao + 1;
+            } else {
+                inicio = -posicao - 1;
+            }
+        }
+        return Arrays.copyOf(resultado, quantidade);
+    }
+
+    // Faixa de relevância do documento para o termo, ou -1 se ele não contiver o termo
+    private static int relevancia(Documento documento, String termo) {
+        int melhor = -1;
+        for (String texto : new String[]{documento.nome(), documento.email()}) {
+            int faixa;
+            if (texto.equals(termo)) {
+                faixa = IGUAL;
+            } else if (texto.startsWith(termo)) {
+                faixa = COMECA;
+            } else {
+                int posicao = texto.indexOf(termo);
+                if (posicao < 0) {
+                    continue;
+                }
+                faixa = CONTEM;
+                for (; posicao > 0; posicao = texto.indexOf(termo, posicao + 1)) {
+                    if (!Character.isLetterOrDigit(texto.charAt(posicao - 1))) {
+                        faixa = PALAVRA_COMECA;
+                        break;
+                    }
+                }
+            }
+            melhor = melhor < 0 ? faixa : Math.min(melhor, faixa);
+        }
+        return melhor;
+    }
+
+    // ---- Gramas: trigramas (3 caracteres de 16 bits) e prefixos de palavra com 1 ou 2 caracteres ----
+
+    private static long[] gramas(Documento documento) {
+        long[] gramas = new long[0];
+        for (String texto : new String[]{documento.nome(), documento.email()}) {
+            long[] doTexto = trigramas(texto);
+            int quantidade = gramas.length;
+            gramas = Arrays.copyOf(gramas, quantidade + doTexto.length + 2 * texto.length());
+            System.arraycopy(doTexto, 0, gramas, quantidade, doTexto.length);
+            quantidade += doTexto.length;
+            for (int i = 0; i < texto.length(); i++) {
+                if (Character.isLetterOrDigit(texto.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(texto.charAt(i - 1)))) {
+                    gramas[quantidade++] = prefixo(texto, i, 1);
+                    if (i + 1 < texto.length() && Character.isLetterOrDigit(texto.charAt(i + 1))) {
+                        gramas[quantidade++] = prefixo(texto, i, 2);
+                    }
+                }
+            }
+            gramas = Arrays.copyOf(gramas, quantidade);
+        }
+        return Arrays.stream(gramas).sorted().distinct().toArray();
+    }
+
+    private static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] trigramas = new long[texto.length() - 2];
+        for (int i = 0; i < trigramas.length; i++) {
+            trigramas[i] = (long) texto.charAt(i) << 32 | (long) texto.charAt(i + 1) << 16 | texto.charAt(i + 2);
+        }
+        return trigramas;
+    }
+
+    // Bits 48 e 49 distinguem os prefixos de 1 e 2 caracteres dos trigramas
+    private static long prefixo(String texto, int inicio, int tamanho) {
+        return tamanho == 1
+                ? 1L << 48 | texto.charAt(inicio)
+                : 1L << 49 | (long) texto.charAt(inicio) << 16 | texto.charAt(inicio + 1);
+    }
+
+    private static Documento documento(UsuarioResumo usuario) {
+        String nome = normalizar(usuario.nome());
+        String email = normalizar(usuario.email());
+        // Reaproveita as Strings do resumo quando a normalização não muda nada (o caso comum nos e-mails)
+        return new Documento(usuario,
+                nome.equals(usuario.nome()) ? usuario.nome() : nome,
+                email.equals(usuario.email()) ? usuario.email() : email);
+    }
+
+    private static String normalizar(String texto) {
+        return ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Estimativa do objeto Documento, do resumo e das Strings (cabeçalho + 1 byte por caractere latino)
+    private static long tamanhoEstimado(Documento documento) {
+        UsuarioResumo usuario = documento.usuario();
+        long bytes = 24 + 32 + 3 * 40L + usuario.nome().length() + usuario.email().length() + usuario.telefone().length();
+        if (documento.nome() != usuario.nome()) {
+            bytes += 40 + documento.nome().length();
+        }
+        if (documento.email() != usuario.email()) {
+            bytes += 40 + documento.email().length();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Garante que um cliente leia as próprias alterações logo depois de fazê-las (read-your-writes).
+ *
+ * <p>Toda requisição que altera usuários (POST, PUT, PATCH ou DELETE em /usuarios) recebe o cabeçalho
+ * {@value #CABECALHO} com o instante da alteração, e o cliente o devolve no mesmo cabeçalho nas requisições
+ * seguintes. Enquanto esse instante estiver dentro da janela configurada, as requisições do cliente são marcadas
+ * para ler do banco principal, mesmo em transações somente leitura, porque a réplica ainda pode não ter recebido
+ * a alteração. Os demais clientes continuam lendo das réplicas.</p>
+ *
+ * <p>É um cabeçalho, e não um cookie, porque a API aceita CORS de qualquer origem sem credenciais: nesse modo o
+ * navegador não guarda nem envia cookies. O cabeçalho é exposto ao JavaScript pelo {@code @CrossOrigin} do
+ * {@link UsuarioController}.</p>
+ *
+ * <p>A marca vale para a thread da requisição. Trabalho que continua em outra thread (como o corpo em fluxo do
+ * /usuarios/export) precisa recebê-la explicitamente, com {@link #exigePrimario()} e {@link #executar}.</p>
+ */
+public class LeituraAposEscrita extends OncePerRequestFilter {
+
+    // Cabeçalho com o instante (epoch em milissegundos) da última alteração do cliente
+    static final String CABECALHO = "Usuarios-Escrita";
+
+    // Marca da requisição atual: true se as leituras devem ir para o banco principal
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final Duration janela;
+
+    /**
+     * Construtor que define por quanto tempo as leituras ficam no banco principal após uma alteração.
+     *
+     * param janela Duração da janela de leitura após escrita.
+     */
+    public LeituraAposEscrita(Duration janela) {
+        this.janela = janela;
+    }
+
+    /**
+     * Indica se as leituras da requisição atual devem ir para o banco principal.
+     *
+     * return true dentro da janela de leitura após escrita do cliente.
+     */
+    static boolean exigePrimario() {
+        return PRIMARIO.get() != null;
+    }
+
+    /**
+     * Leitura executada fora da thread da requisição.
+     */
+    @FunctionalInterface
+    interface Leitura {
+        void executar() throws IOException;
+    }
+
+    /**
+     * Executa a leitura na thread atual com a marca capturada na thread da requisição.
+     *
+     * param primario Valor de {@link #exigePrimario()} na thread da requisição.
+     * param leitura Leitura a executar.
+     * throws IOException se a leitura falhar.
+     */
+    static void executar(boolean primario, Leitura leitura) throws IOException {
+        if (!primario || exigePrimario()) {
+            leitura.executar();
+            return;
+        }
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            leitura.executar();
+        } finally {
+            PRIMARIO.remove();
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long agora = System.currentTimeMillis();
+        boolean escrita = alteraUsuarios(request);
+        if (escrita) {
+            response.setHeader(CABECALHO, Long.toString(agora));
+        }
+
+        // Em valor absoluto: um instante no futuro (relógio de outra instância ou valor forjado) também expira
+        if (escrita || Math.abs(agora - ultimaEscrita(request)) < janela.toMillis()) {
+            PRIMARIO.set(Boolean.TRUE);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PRIMARIO.remove();
+        }
+    }
+
+    // Requisições que criam, alteram ou excluem usuários
+    private static boolean alteraUsuarios(HttpServletRequest request) {
+        HttpMethod metodo = HttpMethod.valueOf(request.getMethod());
+        return request.getRequestURI().startsWith("/usuarios")
+                && !request.getRequestURI().equals("/usuarios/login")
+                && (metodo == HttpMethod.POST || metodo == HttpMethod.PUT
+                || metodo == HttpMethod.PATCH || metodo == HttpMethod.DELETE);
+    }
+
+    // Instante da última alteração devolvido pelo cliente no cabeçalho, ou 0 se não houver
+    private static long ultimaEscrita(HttpServletRequest request) {
+        String valor = request.getHeader(CABECALHO);
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(valor.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.criandoapi.projeto;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Acompanha a saúde e o atraso de replicação das réplicas de leitura e escolhe qual delas atende cada leitura.
+ *
+ * <p>Uma thread própria executa periodicamente a {@code consultaAtraso} em cada réplica. A réplica só recebe
+ * leituras enquanto a consulta responder e o atraso estiver dentro do {@code atrasoMaximo}; falhas de conexão
+ * percebidas pelo {@link RoteadorDataSource} também a retiram de uso até a próxima verificação bem-sucedida.
+ * Entre as réplicas disponíveis, a escolha é feita em rodízio.</p>
+ *
+ * <p>Métricas expostas (via /actuator/metrics), com a tag {@code replica}:</p>
+ * <ul>
+ *   <li>usuarios.replicas.disponivel - 1 se a réplica está recebendo leituras, 0 caso contrário</li>
+ *   <li>usuarios.replicas.atraso - último atraso de replicação medido, em segundos</li>
+ * </ul>
+ */
+public class MonitorReplicas {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplicas.class);
+
+    /**
+     * Estado de uma réplica, atualizado pela thread de verificação e lido pelas requisições.
+     */
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile boolean disponivel;
+        private volatile double atrasoSegundos = Double.NaN;
+
+        private Replica(HikariDataSource dataSource, JdbcTemplate jdbcTemplate) {
+            this.dataSource = dataSource;
+            this.jdbcTemplate = jdbcTemplate;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final String consultaAtraso;
+
+    private final long atrasoMaximoSegundos;
+
+    // Posição do rodízio entre as réplicas disponíveis
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final ScheduledExecutorService agendador;
+
+    /**
+     * Construtor que registra as réplicas e inicia as verificações periódicas.
+     * Até a primeira verificação bem-sucedida, nenhuma réplica recebe leituras.
+     *
+     * param dataSources Pools de conexão das réplicas.
+     * param propriedades Configuração das réplicas.
+     * param registry Registro de métricas do Micrometer.
+     */
+    public MonitorReplicas(List<HikariDataSource> dataSources, PropriedadesReplicas propriedades, MeterRegistry registry) {
+        this.consultaAtraso = propriedades.consultaAtraso();
+        this.atrasoMaximoSegundos = propriedades.atrasoMaximo().toSeconds();
+        int tempoLimite = (int) Math.max(1, propriedades.intervaloVerificacao().toSeconds());
+
+        for (HikariDataSource dataSource : dataSources) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(tempoLimite);
+            Replica replica = new Replica(dataSource, jdbcTemplate);
+            replicas.add(replica);
+
+            Gauge.builder("usuarios.replicas.disponivel", replica, r -> r.disponivel ? 1 : 0)
+                    .tag("replica", dataSource.getPoolName())
+                    .register(registry);
+            Gauge.builder("usuarios.replicas.atraso", replica, r -> r.atrasoSegundos)
+                    .tag("replica", dataSource.getPoolName())
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "monitor-replicas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = propriedades.intervaloVerificacao().toMillis();
+        agendador.scheduleWithFixedDelay(this::verificar, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Verifica agora a saúde e o atraso de todas as réplicas.
+     */
+    public void verificar() {
+        for (Replica replica : replicas) {
+            boolean estava = replica.disponivel;
+            try {
+                Long atraso = replica.jdbcTemplate.query(consultaAtraso, MonitorReplicas::lerAtraso);
+                replica.atrasoSegundos = atraso == null ? Double.NaN : atraso;
+                replica.disponivel = atraso != null && atraso <= atrasoMaximoSegundos;
+            } catch (RuntimeException e) {
+                replica.atrasoSegundos = Double.NaN;
+                replica.disponivel = false;
+                log.debug("Falha ao verificar a réplica {}", replica.dataSource.getPoolName(), e);
+            }
+            if (estava != replica.disponivel) {
+                log.warn("Réplica {} {} (atraso: {}s)", replica.dataSource.getPoolName(),
+                        replica.disponivel ? "voltou a receber leituras" : "retirada das leituras", replica.atrasoSegundos);
+            }
+        }
+    }
+
+    // Lê o atraso da coluna Seconds_Behind_Source (MySQL) ou, se ela não existir, da primeira coluna
+    private static Long lerAtraso(ResultSet resultado) throws SQLException {
+        if (!resultado.next()) {
+            return null;
+        }
+        ResultSetMetaData metadados = resultado.getMetaData();
+        int coluna = 1;
+        for (int i = 1; i <= metadados.getColumnCount(); i++) {
+            if ("Seconds_Behind_Source".equalsIgnoreCase(metadados.getColumnLabel(i))) {
+                coluna = i;
+            }
+        }
+        long atraso = resultado.getLong(coluna);
+        return resultado.wasNull() ? null : atraso;
+    }
+
+    /**
+     * Escolhe, em rodízio, uma réplica disponível para a próxima leitura.
+     *
+     * return Pool de conexões da réplica, ou null se nenhuma estiver disponível.
+     */
+    HikariDataSource proximaDisponivel() {
+        int quantidade = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Replica replica = replicas.get((inicio + i) % quantidade);
+            if (replica.disponivel) {
+                return replica.dataSource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retira a réplica das leituras até a próxima verificação bem-sucedida (por exemplo, após uma falha de conexão).
+     *
+     * param dataSource Pool de conexões da réplica.
+     * param causa Erro que motivou a retirada.
+     */
+    void marcarIndisponivel(HikariDataSource dataSource, Exception causa) {
+        for (Replica replica : replicas) {
+            if (replica.dataSource == dataSource && replica.disponivel) {
+                replica.disponivel = false;
+                log.warn("Réplica {} retirada das leituras: {}", dataSource.getPoolName(), causa.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Encerra as verificações e fecha os pools das réplicas quando o contexto do Spring é finalizado.
+     */
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.criandoapi.projeto;
+
+import java.util.List;
+
+/**
+ * Página de usuários retornada pela listagem paginada por cursor (keyset).
+ *
+ * <p>O cursor é o ID do último usuário da página. Para buscar a próxima página,
+ * basta enviar o valor de {@code proximo} no parâmetro {@code apos}. Quando não houver
+ * mais registros, {@code proximo} é nulo.</p>
+ *
+ * param usuarios Usuários da página, ordenados por ID.
+ * param proximo Cursor da próxima página ou null se esta for a última.
+ */
+public record PaginaUsuarios(List<UsuarioResumo> usuarios, Integer proximo) {
+}
@@ -0,0 +1,47 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuração das réplicas de leitura do banco de usuários (prefixo {@code usuarios.replicas}).
+ *
+ * <p>Exemplo:</p>
+ * <pre>
+ * usuarios.replicas.fontes[0].url=jdbc:mysql://replica-1:3306/banco_de_usuarios
+ * usuarios.replicas.fontes[0].username=leitura
+ * usuarios.replicas.fontes[0].password=senha
+ * usuarios.replicas.atraso-maximo=5s
+ * </pre>
+ *
+ * param fontes Conexões das réplicas (sem nenhuma, todas as operações usam o banco principal).
+ * param atrasoMaximo Atraso de replicação acima do qual a réplica deixa de receber leituras.
+ * param intervaloVerificacao Intervalo entre as verificações de saúde e atraso de cada réplica.
+ * param consultaAtraso Comando que devolve o atraso da réplica em segundos (coluna Seconds_Behind_Source
+ *                      ou a primeira coluna). Sem linhas ou com valor nulo, a réplica é considerada parada.
+ * param tempoConexao Tempo máximo de espera por uma conexão da réplica antes de usar o banco principal.
+ * param janelaLeituraAposEscrita Tempo em que as leituras de um cliente vão para o banco principal depois
+ *                                de uma alteração feita por ele.
+ */
+@ConfigurationProperties("usuarios.replicas")
+public record PropriedadesReplicas(
+        @DefaultValue List<Fonte> fontes,
+        @DefaultValue("5s") Duration atrasoMaximo,
+        @DefaultValue("2s") Duration intervaloVerificacao,
+        @DefaultValue("SHOW REPLICA STATUS") String consultaAtraso,
+        @DefaultValue("1s") Duration tempoConexao,
+        @DefaultValue("5s") Duration janelaLeituraAposEscrita) {
+
+    /**
+     * Conexão de uma réplica.
+     *
+     * param url URL JDBC da réplica.
+     * param username Usuário do banco.
+     * param password Senha do banco.
+     */
+    public record Fonte(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,997 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.jpa.JpaObjectRetrievalFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repositório de usuários em memória, ativado pelo perfil {@code memoria}, para implantações de borda
+ * (poucos usuários, quase só leituras) e testes de carga sem MySQL. O mesmo {@link UsuarioService} roda sobre ele.
+ *
+ * <p>Os usuários ficam em um vetor indexado pelo próprio ID ({@code int}, sem chaves Integer), e cada usuário
+ * é uma linha codificada em um único {@code byte[]}: a versão seguida dos campos em UTF-8, cada um precedido
+ * do tamanho em varint. O índice de e-mail é uma tabela hash de endereçamento aberto que guarda apenas IDs e
+ * hashes em vetores de int; o e-mail é conferido na própria linha. Como no MySQL, a comparação de e-mails
+ * ignora maiúsculas e minúsculas.</p>
+ *
+ * <p>Leituras e escritas são protegidas por um ReentrantReadWriteLock (que não prende threads virtuais).
+ * Cada operação é atômica sozinha, inclusive a inserção em lote (todas as linhas ou nenhuma), então o
+ * gerenciador de transações do perfil ({@link ConfiguracaoMemoria}) não precisa desfazer nada.</p>
+ *
+ * <p>Com {@code usuarios.memoria.diretorio} informado, o conteúdo sobrevive a reinícios: cada alteração é
+ * acrescentada a um log ({@code usuarios.log}) e, quando ele passa de {@code tamanho-maximo-log}, todos os
+ * usuários são gravados em um snapshot ({@code usuarios.snapshot}) e o log recomeça vazio. Na inicialização,
+ * o snapshot é lido e o log é reaplicado; um último registro incompleto (queda no meio da escrita) é descartado.
+ * A inserção em lote vira um único registro, então também é tudo ou nada no log.
+ * Com {@code sincronizar=false} o log não é forçado ao disco a cada escrita: sobrevive à queda do processo,
+ * mas não à da máquina.</p>
+ *
+ * <p>Ordenações e consultas por Example do JpaRepository são atendidas sobre uma cópia das linhas
+ * ({@link ConsultaUsuariosMemoria}), com a mesma semântica do JPA.</p>
+ */
+@Repository
+@Profile("memoria")
+public class RepositorioUsuariosMemoria implements IUsuario {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositorioUsuariosMemoria.class);
+
+    // Posição de cada campo na linha codificada
+    private static final int NOME = 0;
+    private static final int EMAIL = 1;
+    private static final int SENHA = 2;
+    private static final int TELEFONE = 3;
+
+    // Formato dos arquivos de persistência
+    private static final int MARCA_SNAPSHOT = 0x55535231;
+    private static final byte REGISTRO_GRAVAR = 1;
+    private static final byte REGISTRO_EXCLUIR = 2;
+    private static final byte REGISTRO_LOTE = 3;
+
+    // Linhas copiadas por vez (sob a trava de leitura) ao percorrer todos os usuários
+    private static final int TAMANHO_BLOCO = 1000;
+
+    /**
+     * Converte uma linha codificada no objeto devolvido por uma consulta.
+     */
+    private interface ConversorLinha<T> {
+        T converter(int id, byte[] linha);
+    }
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    // Linhas codificadas, indexadas pelo ID (posições vazias são usuários excluídos ou ainda não criados)
+    private byte[][] linhas = new byte[1024][];
+    private int proximoId = 1;
+    private int quantidade;
+    private long bytesLinhas;
+
+    // Índice de e-mail: endereçamento aberto com sondagem linear; ID 0 marca posição livre
+    private int[] indiceIds = new int[2048];
+    private int[] indiceHashes = new int[2048];
+
+    // Persistência (nula quando nenhum diretório foi configurado)
+    private final Path diretorio;
+    private final boolean sincronizar;
+    private final long tamanhoMaximoLog;
+    private FileChannel arquivoLog;
+
+    /**
+     * Construtor que recupera os usuários do snapshot e do log, se houver diretório configurado.
+     *
+     * param diretorio Diretório do snapshot e do log, ou vazio para não persistir (usuarios.memoria.diretorio).
+     * param sincronizar Se cada escrita no log deve ser forçada ao disco (usuarios.memoria.sincronizar).
+     * param tamanhoMaximoLog Tamanho do log que dispara um novo snapshot (usuarios.memoria.tamanho-maximo-log).
+     * param registry Registro de métricas do Micrometer.
+     */
+    public RepositorioUsuariosMemoria(@Value("${usuarios.memoria.diretorio:}") String diretorio,
+                           @Value("${usuarios.memoria.sincronizar:false}") boolean sincronizar,
+                           @Value("${usuarios.memoria.tamanho-maximo-log:64MB}") DataSize tamanhoMaximoLog,
+                           MeterRegistry registry) {
+        this.diretorio = diretorio.isBlank() ? null : Path.of(diretorio);
+        this.sincronizar = sincronizar;
+        this.tamanhoMaximoLog = tamanhoMaximoLog.toBytes();
+        if (this.diretorio != null) {
+            try {
+                recuperar();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível recuperar os usuários de " + this.diretorio, e);
+            }
+        }
+
+        Gauge.builder("usuarios.memoria.linhas", this, r -> r.quantidade).register(registry);
+        Gauge.builder("usuarios.memoria.bytes", this, r -> r.bytesLinhas).baseUnit("bytes").register(registry);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        if (arquivoLog != null) {
+            arquivoLog.close();
+        }
+    }
+
+    // ---- Consultas do IUsuario ----
+
+    @Override
+    public List<UsuarioResumo> buscarPagina(int cursor, Limit limite) {
+        List<UsuarioResumo> pagina = new ArrayList<>();
+        lerBloco(cursor, limite.isLimited() ? limite.max() : Integer.MAX_VALUE, RepositorioUsuariosMemoria::resumo, pagina);
+        return pagina;
+    }
+
+    @Override
+    public Stream<UsuarioResumo> percorrerTodos() {
+        return percorrer(RepositorioUsuariosMemoria::resumo);
+    }
+
+    @Override
+    public Stream<String> percorrerEmails() {
+        return percorrer((id, linha) -> campo(linha, EMAIL));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        trava.readLock().lock();
+        try {
+            return buscarNoIndice(email) != 0;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<CredencialUsuario> buscarCredencialPorEmail(String email) {
+        trava.readLock().lock();
+        try {
+            int id = buscarNoIndice(email);
+            return id == 0 ? Optional.empty() : Optional.of(new CredencialUsuario(id, campo(linhas[id], SENHA)));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<UsuarioResumo> buscarResumoPorId(int id) {
+        return ler(id, RepositorioUsuariosMemoria::resumo);
+    }
+
+    @Override
+    public Optional<String> buscarSenhaPorId(int id) {
+        return ler(id, (i, linha) -> campo(linha, SENHA));
+    }
+
+    @Override
+    public int excluirSeVersao(int id, int version) {
+        trava.writeLock().lock();
+        try {
+            byte[] linha = linha(id);
+            if (linha == null || versao(linha) != version) {
+                return 0;
+            }
+            excluir(id);
+            return 1;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void inserirEmLote(List<Usuario> usuarios) {
+        trava.writeLock().lock();
+        try {
+            // Confere todas as linhas antes de gravar a primeira, para que o lote seja tudo ou nada
+            Set<String> emails = new HashSet<>();
+            for (Usuario usuario : usuarios) {
+                verificarObrigatorios(usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+                String email = usuario.getEmail().toLowerCase(Locale.ROOT);
+                if (buscarNoIndice(email) != 0 || !emails.add(email)) {
+                    throw emailDuplicado(usuario.getEmail());
+                }
+            }
+            // Um único registro no log com o lote inteiro; a memória só é alterada depois que ele foi gravado
+            byte[][] novas = new byte[usuarios.size()][];
+            int tamanho = 5;
+            for (int i = 0; i < novas.length; i++) {
+                Usuario usuario = usuarios.get(i);
+                novas[i] = codificar(0, usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+                tamanho += 8 + novas[i].length;
+            }
+            int primeiroId = proximoId;
+            ByteBuffer registro = ByteBuffer.allocate(tamanho).put(REGISTRO_LOTE).putInt(novas.length);
+            for (int i = 0; i < novas.length; i++) {
+                registro.putInt(primeiroId + i).putInt(novas[i].length).put(novas[i]);
+            }
+            registrar(registro.flip());
+            for (int i = 0; i < novas.length; i++) {
+                Usuario usuario = usuarios.get(i);
+                usuario.setId(primeiroId + i);
+                usuario.setVersion(0);
+                aplicarGravacao(primeiroId + i, novas[i]);
+            }
+            compactarSeNecessario();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int atualizarCampos(int id, Integer versao, String nome, String email, String senha, String telefone) {
+        trava.writeLock().lock();
+        try {
+            byte[] linha = linha(id);
+            if (linha == null || (versao != null && versao != versao(linha))) {
+                return 0;
+            }
+            if (email != null) {
+                verificarEmailLivre(email, id);
+            }
+            gravar(id, codificar(versao(linha) + 1,
+                    nome != null ? nome : campo(linha, NOME),
+                    email != null ? email : campo(linha, EMAIL),
+                    senha != null ? senha : campo(linha, SENHA),
+                    telefone != null ? telefone : campo(linha, TELEFONE)));
+            return 1;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> buscarIdsExistentes(Collection<Integer> ids) {
+        return ler(ids, (id, linha) -> id);
+    }
+
+    @Override
+    public List<Integer> buscarIdsPorDominio(String dominio, int cursor, Limit limite) {
+        String sufixo = "@" + dominio.toLowerCase(Locale.ROOT);
+        List<Integer> encontrados = new ArrayList<>();
+        int maximo = limite.isLimited() ? limite.max() : Integer.MAX_VALUE;
+        trava.readLock().lock();
+        try {
+            int fim = Math.min(proximoId, linhas.length);
+            for (int id = Math.max(cursor, 0) + 1; id < fim && encontrados.size() < maximo; id++) {
+                if (linhas[id] != null && campo(linhas[id], EMAIL).toLowerCase(Locale.ROOT).endsWith(sufixo)) {
+                    encontrados.add(id);
+                }
+            }
+            return encontrados;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UsuarioResumo> buscarResumosPorIds(Collection<Integer> ids) {
+        return ler(ids, RepositorioUsuariosMemoria::resumo);
+    }
+
+    @Override
+    public int excluirPorIds(Collection<Integer> ids) {
+        trava.writeLock().lock();
+        try {
+            int excluidos = 0;
+            for (Integer id : new HashSet<>(ids)) {
+                if (id != null && linha(id) != null) {
+                    excluir(id);
+                    excluidos++;
+                }
+            }
+            return excluidos;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int atualizarEmMassa(Collection<Integer> ids, String nome, String telefone) {
+        trava.writeLock().lock();
+        try {
+            int alterados = 0;
+            for (Integer id : new HashSet<>(ids)) {
+                byte[] linha = id == null ? null : linha(id);
+                if (linha == null) {
+                    continue;
+                }
+                gravar(id, codificar(versao(linha) + 1,
+                        nome != null ? nome : campo(linha, NOME),
+                        campo(linha, EMAIL),
+                        campo(linha, SENHA),
+                        telefone != null ? telefone : campo(linha, TELEFONE)));
+                alterados++;
+            }
+            return alterados;
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    // ---- CrudRepository / JpaRepository ----
+
+    /**
+     * Insere o usuário (ID 0 ou inexistente, com um novo ID) ou o atualiza, conferindo a versão como o
+     * {@code @Version} do JPA. Devolve uma cópia com o ID e a versão gravados.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Usuario> S save(S usuario) {
+        verificarObrigatorios(usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+        trava.writeLock().lock();
+        try {
+            byte[] atual = linha(usuario.getId());
+            int id = atual == null ? proximoId : usuario.getId();
+            if (atual != null && versao(atual) != usuario.getVersion()) {
+                throw new OptimisticLockingFailureException("Usuário " + id + " não está mais na versão " + usuario.getVersion());
+            }
+            verificarEmailLivre(usuario.getEmail(), id);
+            int version = atual == null ? 0 : usuario.getVersion() + 1;
+            byte[] linha = codificar(version, usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+            gravar(id, linha);
+            return (S) entidade(id, linha);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends Usuario> List<S> saveAll(Iterable<S> usuarios) {
+        List<S> salvos = new ArrayList<>();
+        for (S usuario : usuarios) {
+            salvos.add(save(usuario));
+        }
+        return salvos;
+    }
+
+    @Override
+    public <S extends Usuario> S saveAndFlush(S usuario) {
+        return save(usuario);
+    }
+
+    @Override
+    public <S extends Usuario> List<S> saveAllAndFlush(Iterable<S> usuarios) {
+        return saveAll(usuarios);
+    }
+
+    @Override
+    public void flush() {
+        // Cada escrita já é aplicada (e registrada no log) na hora
+    }
+
+    @Override
+    public Optional<Usuario> findById(Integer id) {
+        return ler(id, RepositorioUsuariosMemoria::entidade);
+    }
+
+    @Override
+    public boolean existsById(Integer id) {
+        return ler(id, (i, linha) -> Boolean.TRUE).isPresent();
+    }
+
+    @Override
+    public List<Usuario> findAll() {
+        List<Usuario> usuarios = new ArrayList<>();
+        lerBloco(0, Integer.MAX_VALUE, RepositorioUsuariosMemoria::entidade, usuarios);
+        return usuarios;
+    }
+
+    @Override
+    public List<Usuario> findAllById(Iterable<Integer> ids) {
+        List<Usuario> usuarios = new ArrayList<>();
+        for (Integer id : ids) {
+            findById(id).ifPresent(usuarios::add);
+        }
+        return usuarios;
+    }
+
+    @Override
+    public List<Usuario> findAll(Sort sort) {
+        return ConsultaUsuariosMemoria.ordenar(findAll(), sort);
+    }
+
+    @Override
+    public Page<Usuario> findAll(Pageable pageable) {
+        return ConsultaUsuariosMemoria.paginar(findAll(pageable.getSort()), pageable, Function.identity());
+    }
+
+    @Override
+    public long count() {
+        trava.readLock().lock();
+        try {
+            return quantidade;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Integer id) {
+        trava.writeLock().lock();
+        try {
+            if (linha(id) != null) {
+                excluir(id);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Usuario usuario) {
+        deleteById(usuario.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Integer> ids) {
+        for (Integer id : ids) {
+            deleteById(id);
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Usuario> usuarios) {
+        for (Usuario usuario : usuarios) {
+            delete(usuario);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        trava.writeLock().lock();
+        try {
+            for (int id = 1; id < Math.min(proximoId, linhas.length); id++) {
+                if (linhas[id] != null) {
+                    excluir(id);
+                }
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Usuario> usuarios) {
+        deleteAll(usuarios);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Integer> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public Usuario getOne(Integer id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Usuario getById(Integer id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public Usuario getReferenceById(Integer id) {
+        return findById(id).orElseThrow(() -> new JpaObjectRetrievalFailureException(
+                new EntityNotFoundException("Usuário " + id + " não encontrado")));
+    }
+
+    // As consultas por Example filtram uma cópia de todas as linhas: servem às consultas eventuais, não ao caminho quente
+
+    @Override
+    public <S extends Usuario> Optional<S> findOne(Example<S> example) {
+        List<S> encontrados = findAll(example);
+        if (encontrados.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, encontrados.size());
+        }
+        return encontrados.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Usuario> List<S> findAll(Example<S> example) {
+        return (List<S>) buscarPorExemplo(example);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Usuario> List<S> findAll(Example<S> example, Sort sort) {
+        return (List<S>) ConsultaUsuariosMemoria.ordenar(buscarPorExemplo(example), sort);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Usuario> Page<S> findAll(Example<S> example, Pageable pageable) {
+        List<Usuario> encontrados = ConsultaUsuariosMemoria.ordenar(buscarPorExemplo(example), pageable.getSort());
+        return ConsultaUsuariosMemoria.paginar(encontrados, pageable, usuario -> (S) usuario);
+    }
+
+    @Override
+    public <S extends Usuario> long count(Example<S> example) {
+        return buscarPorExemplo(example).size();
+    }
+
+    @Override
+    public <S extends Usuario> boolean exists(Example<S> example) {
+        return !buscarPorExemplo(example).isEmpty();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Usuario, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> consulta) {
+        return consulta.apply((FluentQuery.FetchableFluentQuery<S>) ConsultaUsuariosMemoria.consulta(buscarPorExemplo(example)));
+    }
+
+    private List<Usuario> buscarPorExemplo(Example<? extends Usuario> exemplo) {
+        List<Usuario> encontrados = new ArrayList<>();
+        for (Usuario usuario : findAll()) {
+            if (ConsultaUsuariosMemoria.corresponde(usuario, exemplo)) {
+                encontrados.add(usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    // ---- Leitura ----
+
+    // Converte a linha do ID sob a trava de leitura
+    private <T> Optional<T> ler(Integer id, ConversorLinha<T> conversor) {
+        trava.readLock().lock();
+        try {
+            byte[] linha = id == null ? null : linha(id);
+            return linha == null ? Optional.empty() : Optional.of(conversor.converter(id, linha));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Converte, em ordem de ID, as linhas existentes dentre os IDs informados, sob uma única trava de leitura
+    private <T> List<T> ler(Collection<Integer> ids, ConversorLinha<T> conversor) {
+        int[] ordenados = ids.stream().filter(id -> id != null).mapToInt(Integer::intValue).sorted().distinct().toArray();
+        List<T> convertidos = new ArrayList<>(ordenados.length);
+        trava.readLock().lock();
+        try {
+            for (int id : ordenados) {
+                byte[] linha = linha(id);
+                if (linha != null) {
+                    convertidos.add(conversor.converter(id, linha));
+                }
+            }
+            return convertidos;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Converte até 'limite' linhas com ID maior que o cursor, em ordem de ID; devolve o último ID examinado
+    private <T> int lerBloco(int cursor, int limite, ConversorLinha<T> conversor, List<T> destino) {
+        trava.readLock().lock();
+        try {
+            int fim = Math.min(proximoId, linhas.length);
+            int id = Math.max(cursor, 0) + 1;
+            for (; id < fim && destino.size() < limite; id++) {
+                if (linhas[id] != null) {
+                    destino.add(conversor.converter(id, linhas[id]));
+                }
+            }
+            return id - 1;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    // Fluxo em ordem de ID que copia blocos de linhas, sem manter a trava entre um bloco e outro
+    private <T> Stream<T> percorrer(ConversorLinha<T> conversor) {
+        Spliterator<T> blocos = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private final List<T> bloco = new ArrayList<>(TAMANHO_BLOCO);
+            private int posicao;
+            private int cursor;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> acao) {
+                if (posicao == bloco.size()) {
+                    bloco.clear();
+                    posicao = 0;
+                    cursor = lerBloco(cursor, TAMANHO_BLOCO, conversor, bloco);
+                    if (bloco.isEmpty()) {
+                        return false;
+                    }
+                }
+                acao.accept(bloco.get(posicao++));
+                return true;
+            }
+        };
+        return StreamSupport.stream(blocos, false);
+    }
+
+    private byte[] linha(int id) {
+        return id > 0 && id < linhas.length ? linhas[id] : null;
+    }
+
+    // ---- Escrita (sempre com a trava de escrita) ----
+
+    // Registra a linha no log e a aplica na memória
+    private void gravar(int id, byte[] linha) {
+        ByteBuffer registro = ByteBuffer.allocate(9 + linha.length)
+                .put(REGISTRO_GRAVAR).putInt(id).putInt(linha.length).put(linha);
+        registrar(registro.flip());
+        aplicarGravacao(id, linha);
+        compactarSeNecessario();
+    }
+
+    private void excluir(int id) {
+        registrar(ByteBuffer.allocate(5).put(REGISTRO_EXCLUIR).putInt(id).flip());
+        aplicarExclusao(id);
+        compactarSeNecessario();
+    }
+
+    private void aplicarGravacao(int id, byte[] linha) {
+        if (id >= linhas.length) {
+            linhas = Arrays.copyOf(linhas, Math.max(linhas.length * 2, id + 1));
+        }
+        byte[] anterior = linhas[id];
+        if (anterior == null) {
+            quantidade++;
+        } else {
+            bytesLinhas -= anterior.length;
+            desindexar(id, hashEmail(campo(anterior, EMAIL)));
+        }
+        linhas[id] = linha;
+        bytesLinhas += linha.length;
+        indexar(id, hashEmail(campo(linha, EMAIL)));
+        proximoId = Math.max(proximoId, id + 1);
+    }
+
+    private void aplicarExclusao(int id) {
+        byte[] anterior = linha(id);
+        if (anterior != null) {
+            desindexar(id, hashEmail(campo(anterior, EMAIL)));
+            linhas[id] = null;
+            quantidade--;
+            bytesLinhas -= anterior.length;
+        }
+    }
+
+    private void verificarEmailLivre(String email, int id) {
+        int dono = buscarNoIndice(email);
+        if (dono != 0 && dono != id) {
+            throw emailDuplicado(email);
+        }
+    }
+
+    // As colunas são NOT NULL no banco; aqui a mesma violação vira o mesmo tipo de exceção
+    private static void verificarObrigatorios(String nome, String email, String senha, String telefone) {
+        if (nome == null || email == null || senha == null || telefone == null) {
+            throw new DataIntegrityViolationException("Nome, e-mail, senha e telefone são obrigatórios");
+        }
+    }
+
+    private static DataIntegrityViolationException emailDuplicado(String email) {
+        return new DataIntegrityViolationException("E-mail já cadastrado (uk_usuarios_email): " + email);
+    }
+
+    // ---- Índice de e-mail ----
+
+    private static int hashEmail(String email) {
+        int hash = email.toLowerCase(Locale.ROOT).hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    // ID do usuário com o e-mail, ou 0 se não houver
+    private int buscarNoIndice(String email) {
+        int hash = hashEmail(email);
+        int mascara = indiceIds.length - 1;
+        for (int i = hash & mascara; indiceIds[i] != 0; i = (i + 1) & mascara) {
+            if (indiceHashes[i] == hash && campo(linhas[indiceIds[i]], EMAIL).equalsIgnoreCase(email)) {
+                return indiceIds[i];
+            }
+        }
+        return 0;
+    }
+
+    private void indexar(int id, int hash) {
+        if (quantidade * 2 > indiceIds.length) {
+            int[] ids = indiceIds;
+            int[] hashes = indiceHashes;
+            indiceIds = new int[ids.length * 2];
+            indiceHashes = new int[ids.length * 2];
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != 0) {
+                    colocarNoIndice(ids[i], hashes[i]);
+                }
+            }
+        }
+        colocarNoIndice(id, hash);
+    }
+
+    private void colocarNoIndice(int id, int hash) {
+        int mascara = indiceIds.length - 1;
+        int i = hash & mascara;
+        while (indiceIds[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        indiceIds[i] = id;
+        indiceHashes[i] = hash;
+    }
+
+    // Remove o ID e puxa para trás as entradas seguintes da sequência, para não deixar buracos na sondagem
+    private void desindexar(int id, int hash) {
+        int mascara = indiceIds.length - 1;
+        int livre = hash & mascara;
+        while (indiceIds[livre] != id) {
+            livre = (livre + 1) & mascara;
+        }
+        for (int j = (livre + 1) & mascara; indiceIds[j] != 0; j = (j + 1) & mascara) {
+            int origem = indiceHashes[j] & mascara;
+            if (((j - origem) & mascara) >= ((j - livre) & mascara)) {
+                indiceIds[livre] = indiceIds[j];
+                indiceHashes[livre] = indiceHashes[j];
+                livre = j;
+            }
+        }
+        indiceIds[livre] = 0;
+        indiceHashes[livre] = 0;
+    }
+
+    // ---- Codificação das linhas: versão (4 bytes) + nome, e-mail, senha e telefone (varint + UTF-8) ----
+
+    private static byte[] codificar(Usuario usuario) {
+        return codificar(usuario.getVersion(), usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+    }
+
+    private static byte[] codificar(int version, String nome, String email, String senha, String telefone) {
+        byte[][] campos = {
+                nome.getBytes(StandardCharsets.UTF_8),
+                email.getBytes(StandardCharsets.UTF_8),
+                senha.getBytes(StandardCharsets.UTF_8),
+                telefone.getBytes(StandardCharsets.UTF_8)
+        };
+        int tamanho = 4;
+        for (byte[] campo : campos) {
+            tamanho += tamanhoVarint(campo.length) + campo.length;
+        }
+        ByteBuffer linha = ByteBuffer.allocate(tamanho).putInt(version);
+        for (byte[] campo : campos) {
+            int valor = campo.length;
+            while (valor >= 0x80) {
+                linha.put((byte) (valor | 0x80));
+                valor >>>= 7;
+            }
+            linha.put((byte) valor).put(campo);
+        }
+        return linha.array();
+    }
+
+    private static int tamanhoVarint(int valor) {
+        return valor < 0x80 ? 1 : valor < 0x4000 ? 2 : valor < 0x200000 ? 3 : valor < 0x10000000 ? 4 : 5;
+    }
+
+    private static int versao(byte[] linha) {
+        return (linha[0] & 0xFF) << 24 | (linha[1] & 0xFF) << 16 | (linha[2] & 0xFF) << 8 | (linha[3] & 0xFF);
+    }
+
+    private static String campo(byte[] linha, int indice) {
+        int posicao = 4;
+        for (int i = 0; ; i++) {
+            int tamanho = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = linha[posicao++];
+                tamanho |= (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            if (i == indice) {
+                return new String(linha, posicao, tamanho, StandardCharsets.UTF_8);
+            }
+            posicao += tamanho;
+        }
+    }
+
+    private static UsuarioResumo resumo(int id, byte[] linha) {
+        return new UsuarioResumo(id, versao(linha), campo(linha, NOME), campo(linha, EMAIL), campo(linha, TELEFONE));
+    }
+
+    private static Usuario entidade(int id, byte[] linha) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setVersion(versao(linha));
+        usuario.setNome(campo(linha, NOME));
+        usuario.setEmail(campo(linha, EMAIL));
+        usuario.setSenha(campo(linha, SENHA));
+        usuario.setTelefone(campo(linha, TELEFONE));
+        return usuario;
+    }
+
+    // ---- Persistência: snapshot + log ----
+
+    // Lê o snapshot, reaplica o log e deixa o log aberto para novas escritas
+    private void recuperar() throws IOException {
+        Files.createDirectories(diretorio);
+        Path snapshot = diretorio.resolve("usuarios.snapshot");
+        if (Files.exists(snapshot)) {
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                if (entrada.readInt() != MARCA_SNAPSHOT) {
+                    throw new IOException("Arquivo de snapshot inválido: " + snapshot);
+                }
+                int proximo = entrada.readInt();
+                int total = entrada.readInt();
+                for (int i = 0; i < total; i++) {
+                    int id = entrada.readInt();
+                    byte[] linha = new byte[entrada.readInt()];
+                    entrada.readFully(linha);
+                    aplicarGravacao(id, linha);
+                }
+                proximoId = Math.max(proximoId, proximo);
+            }
+        }
+
+        arquivoLog = FileChannel.open(diretorio.resolve("usuarios.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer conteudo = ByteBuffer.allocate((int) arquivoLog.size());
+        while (conteudo.hasRemaining() && arquivoLog.read(conteudo) >= 0) {
+            // lê o log inteiro
+        }
+        conteudo.flip();
+
+        int registros = 0;
+        int valido = 0;
+        try {
+            while (conteudo.hasRemaining()) {
+                byte tipo = conteudo.get();
+                int id = conteudo.getInt();
+                if (tipo == REGISTRO_GRAVAR) {
+                    aplicarGravacao(id, lerLinha(conteudo));
+                } else if (tipo == REGISTRO_LOTE) {
+                    // Aqui o campo do ID é a quantidade de linhas; o lote só é aplicado se estiver inteiro no log
+                    if (id < 0 || id > conteudo.remaining() / 8) {
+                        throw new BufferUnderflowException();
+                    }
+                    int[] ids = new int[id];
+                    byte[][] lote = new byte[id][];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = conteudo.getInt();
+                        lote[i] = lerLinha(conteudo);
+                    }
+                    for (int i = 0; i < ids.length; i++) {
+                        aplicarGravacao(ids[i], lote[i]);
+                    }
+                } else if (tipo == REGISTRO_EXCLUIR) {
+                    aplicarExclusao(id);
+                } else {
+                    throw new BufferUnderflowException();
+                }
+                registros++;
+                valido = conteudo.position();
+            }
+        } catch (BufferUnderflowException e) {
+            log.warn("Descartando {} bytes incompletos no fim do log de usuários", conteudo.limit() - valido);
+        }
+        arquivoLog.truncate(valido);
+        arquivoLog.position(valido);
+        log.info("{} usuários recuperados de {} ({} registros do log reaplicados)", quantidade, diretorio, registros);
+    }
+
+    private static byte[] lerLinha(ByteBuffer conteudo) {
+        int tamanho = conteudo.getInt();
+        if (tamanho < 0 || tamanho > conteudo.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] linha = new byte[tamanho];
+        conteudo.get(linha);
+        return linha;
+    }
+
+    // Acrescenta o registro ao log; se a escrita falhar, corta o que já foi escrito dele, para que o log
+    // continue terminando em um registro completo e o próximo não fique atrás de um pedaço
+    private void registrar(ByteBuffer registro) {
+        if (arquivoLog == null) {
+            return;
+        }
+        long inicio = -1;
+        try {
+            inicio = arquivoLog.position();
+            while (registro.hasRemaining()) {
+                arquivoLog.write(registro);
+            }
+            if (sincronizar) {
+                arquivoLog.force(false);
+            }
+        } catch (IOException e) {
+            if (inicio >= 0) {
+                try {
+                    arquivoLog.truncate(inicio);
+                    arquivoLog.position(inicio);
+                } catch (IOException falhaAoCortar) {
+                    e.addSuppressed(falhaAoCortar);
+                }
+            }
+            throw new DataAccessResourceFailureException("Falha ao gravar o log de usuários", e);
+        }
+    }
+
+    // Grava todos os usuários em um novo snapshot (substituído de forma atômica) e esvazia o log
+    private void compactarSeNecessario() {
+        try {
+            if (arquivoLog == null || arquivoLog.size() < tamanhoMaximoLog) {
+                return;
+            }
+            Path snapshot = diretorio.resolve("usuarios.snapshot");
+            Path temporario = diretorio.resolve("usuarios.snapshot.tmp");
+            try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile());
+                 DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(arquivo))) {
+                saida.writeInt(MARCA_SNAPSHOT);
+                saida.writeInt(proximoId);
+                saida.writeInt(quantidade);
+                for (int id = 1; id < Math.min(proximoId, linhas.length); id++) {
+                    if (linhas[id] != null) {
+                        saida.writeInt(id);
+                        saida.writeInt(linhas[id].length);
+                        saida.write(linhas[id]);
+                    }
+                }
+                saida.flush();
+                arquivo.getChannel().force(true);
+            }
+            Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Se o processo cair antes daqui, o log antigo é reaplicado sobre o snapshot novo e o resultado é o mesmo
+            arquivoLog.truncate(0);
+            arquivoLog.position(0);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Falha ao gravar o snapshot de usuários", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.criandoapi.projeto;
+
+import java.util.List;
+
+/**
+ * Página de resultados da busca de usuários por trecho do nome ou do e-mail.
+ *
+ * param usuarios Usuários da página, em ordem de relevância.
+ * param total Quantidade total de usuários encontrados.
+ * param pagina Número da página, a partir de 0.
+ * param completo false enquanto o índice de busca ainda está sendo preenchido a partir do banco.
+ */
+public record ResultadoBusca(List<UsuarioResumo> usuarios, int total, int pagina, boolean completo) {
+}
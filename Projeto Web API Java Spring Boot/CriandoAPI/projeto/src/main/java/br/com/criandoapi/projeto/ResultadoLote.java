@@ -0,0 +1,26 @@
+package br.com.criandoapi.projeto;
+
+import java.util.Map;
+
+/**
+ * Resultado individual de uma linha do cadastro em lote.
+ *
+ * param indice Posição da linha no corpo da requisição (começando em 0).
+ * param status Código HTTP equivalente ao resultado da linha (201, 400 ou 409).
+ * param id ID gerado para o usuário, ou null se a linha não foi inserida.
+ * param erros Mapa de campo para mensagem de erro, vazio quando a linha foi inserida.
+ */
+public record ResultadoLote(int indice, int status, Integer id, Map<String, String> erros) {
+
+    public static ResultadoLote criado(int indice, int id) {
+        return new ResultadoLote(indice, 201, id, Map.of());
+    }
+
+    public static ResultadoLote invalido(int indice, Map<String, String> erros) {
+        return new ResultadoLote(indice, 400, null, erros);
+    }
+
+    public static ResultadoLote conflito(int indice, String mensagem) {
+        return new ResultadoLote(indice, 409, null, Map.of("usuario", mensagem));
+    }
+}
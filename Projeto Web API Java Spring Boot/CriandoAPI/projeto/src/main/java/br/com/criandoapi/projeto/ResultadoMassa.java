@@ -0,0 +1,9 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Resultado de uma exclusão ou atualização em massa.
+ *
+ * param afetados Quantidade de usuários excluídos ou alterados.
+ */
+public record ResultadoMassa(int afetados) {
+}
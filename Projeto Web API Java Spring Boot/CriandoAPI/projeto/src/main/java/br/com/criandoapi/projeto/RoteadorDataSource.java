@@ -0,0 +1,64 @@
+package br.com.criandoapi.projeto;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource que envia as transações somente leitura para uma réplica e todo o resto para o banco principal.
+ *
+ * <p>A decisão é tomada no momento em que a conexão física é obtida, por isso este DataSource deve ficar
+ * atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: assim a conexão só é
+ * pedida no primeiro comando SQL, quando o {@code @Transactional(readOnly = true)} já foi registrado.</p>
+ *
+ * <p>Vão para o banco principal: qualquer operação fora de transação somente leitura, as leituras de um cliente
+ * dentro da janela de leitura após escrita ({@link LeituraAposEscrita}) e as leituras feitas quando nenhuma
+ * réplica está disponível ou a réplica escolhida recusa a conexão.</p>
+ */
+public class RoteadorDataSource extends AbstractDataSource {
+
+    private final DataSource primario;
+
+    private final MonitorReplicas monitor;
+
+    /**
+     * Construtor que define o banco principal e o monitor que escolhe as réplicas.
+     *
+     * param primario DataSource do banco principal.
+     * param monitor Monitor de saúde e atraso das réplicas.
+     */
+    public RoteadorDataSource(DataSource primario, MonitorReplicas monitor) {
+        this.primario = primario;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        HikariDataSource replica = escolherReplica();
+        if (replica != null) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                monitor.marcarIndisponivel(replica, e);
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+
+    // Réplica que deve atender a conexão atual, ou null para usar o banco principal
+    private HikariDataSource escolherReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || LeituraAposEscrita.exigePrimario()) {
+            return null;
+        }
+        return monitor.proximaDisponivel();
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Serializador escrito à mão para o {@link UsuarioResumo}, o objeto presente em quase todas as respostas
+ * (consulta, listagem, busca, exportação em NDJSON e feed de alterações).
+ *
+ * <p>Os nomes dos campos são {@link SerializedString}, que guardam os bytes já codificados e escapados:
+ * cada resposta só copia esses bytes, sem a introspecção do record nem as chamadas por reflexão do
+ * serializador padrão. O resultado é idêntico ao do Jackson (mesmos campos, mesma ordem, nulos incluídos)
+ * e vale para todos os formatos do ObjectMapper, inclusive o CBOR.</p>
+ */
+@JsonComponent
+public class SerializadorUsuarioResumo extends StdSerializer<UsuarioResumo> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString NOME = new SerializedString("nome");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString TELEFONE = new SerializedString("telefone");
+
+    public SerializadorUsuarioResumo() {
+        super(UsuarioResumo.class);
+    }
+
+    @Override
+    public void serialize(UsuarioResumo usuario, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+        gerador.writeStartObject(usuario, 5);
+        gerador.writeFieldName(ID);
+        gerador.writeNumber(usuario.id());
+        gerador.writeFieldName(VERSION);
+        gerador.writeNumber(usuario.version());
+        gerador.writeFieldName(NOME);
+        gerador.writeString(usuario.nome());
+        gerador.writeFieldName(EMAIL);
+        gerador.writeString(usuario.email());
+        gerador.writeFieldName(TELEFONE);
+        gerador.writeString(usuario.telefone());
+        gerador.writeEndObject();
+    }
+}
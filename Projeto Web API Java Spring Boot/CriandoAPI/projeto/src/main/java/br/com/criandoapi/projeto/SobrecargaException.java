@@ -0,0 +1,22 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Exceção lançada quando o serviço está sobrecarregado e recusa novas tarefas
+ * em vez de enfileirá-las indefinidamente (por exemplo, a fila de criptografia de senhas está cheia).
+ *
+ * <p>É convertida em HTTP 503 (Service Unavailable) com o cabeçalho Retry-After pelo controlador.</p>
+ */
+public class SobrecargaException extends RuntimeException {
+
+    // Tempo sugerido, em segundos, para o cliente tentar novamente
+    private final int tentarNovamenteEmSegundos;
+
+    public SobrecargaException(String mensagem, int tentarNovamenteEmSegundos) {
+        super(mensagem);
+        this.tentarNovamenteEmSegundos = tentarNovamenteEmSegundos;
+    }
+
+    public int getTentarNovamenteEmSegundos() {
+        return tentarNovamenteEmSegundos;
+    }
+}
@@ -1,7 +1,8 @@
 // Declaração do pacote onde a classe está localizada.
 package br.com.criandoapi.projeto;
 
-// Importações necessárias para o uso de anotações JPA e Lombok.
+// Importações necessárias para o uso de anotações JPA, Jackson e Lombok.
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -15,7 +16,8 @@ import lombok.Setter;
  */
 @Data // Anotação do Lombok para gerar automaticamente getters, setters, toString, equals e hashCode.
 @Entity // Indica que esta classe é uma entidade JPA e será mapeada para uma tabela no banco de dados.
-@Table(name = "usuarios") // Especifica o nome da tabela no banco de dados.
+@Table(name = "usuarios", // Especifica o nome da tabela no banco de dados.
+        uniqueConstraints = @UniqueConstraint(name = "uk_usuarios_email", columnNames = "email")) // Índice único usado no login por e-mail.
 public class Usuario {
 
     /**
@@ -46,6 +48,7 @@ public class Usuario {
 
     /**
      * Endereço de e-mail do usuário.
+     * Único na tabela (índice uk_usuarios_email), usado como identificador no login.
      * Tamanho máximo: 50 caracteres.
      * Pode ser nulo.
      */
@@ -61,6 +64,7 @@ public class Usuario {
      * Observação: Em um cenário real, a senha deve ser criptografada.
      */
     @NotBlank(message = "A senha é obrigatória!")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) // Lida das requisições, mas nunca escrita nas respostas (o hash não sai da API).
     @Column(name = "senha", columnDefinition = "TEXT", nullable = false) // Mapeia o campo para a coluna "senha" na tabela, armazenada como texto e permitindo valores nulos.
     private String senha;
 
@@ -0,0 +1,36 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Evento publicado pelo UsuarioService sempre que um usuário é criado, atualizado ou excluído.
+ *
+ * <p>Componentes que mantêm cópias dos dados de usuários (cache, índices, etc.) escutam este evento
+ * com {@code @EventListener} para se manterem consistentes com o banco de dados.</p>
+ *
+ * param tipo Tipo da alteração.
+ * param id ID do usuário alterado.
+ * param version Versão do registro após a alteração (para exclusões, a última versão conhecida, ou -1 se desconhecida).
+ * param usuario Dados do usuário após a alteração, ou null quando o usuário foi excluído.
+ */
+public record UsuarioAlterado(Tipo tipo, int id, int version, UsuarioResumo usuario) {
+
+    /**
+     * Tipos de alteração de usuário.
+     */
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        EXCLUIDO
+    }
+
+    public static UsuarioAlterado criado(UsuarioResumo usuario) {
+        return new UsuarioAlterado(Tipo.CRIADO, usuario.id(), usuario.version(), usuario);
+    }
+
+    public static UsuarioAlterado atualizado(UsuarioResumo usuario) {
+        return new UsuarioAlterado(Tipo.ATUALIZADO, usuario.id(), usuario.version(), usuario);
+    }
+
+    public static UsuarioAlterado excluido(int id, int version) {
+        return new UsuarioAlterado(Tipo.EXCLUIDO, id, version, null);
+    }
+}
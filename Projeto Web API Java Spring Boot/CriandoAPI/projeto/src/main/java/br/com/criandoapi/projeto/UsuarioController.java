@@ -2,12 +2,20 @@ package br.com.criandoapi.projeto;
 
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,53 +27,201 @@ import java.util.Optional;
  *
  * <p>Endpoints disponíveis:</p>
  * <ul>
- *   <li>GET /usuarios - Lista todos os usuários</li>
+ *   <li>GET /usuarios?apos={cursor}&amp;tamanho={n} - Lista os usuários paginados por cursor</li>
+ *   <li>GET /usuarios/{id} - Busca um usuário pelo ID (com cache)</li>
+ *   <li>GET /usuarios/export?formato=ndjson|csv - Exporta todos os usuários em fluxo</li>
+ *   <li>GET /usuarios/search?q={trecho} - Busca usuários por trecho do nome ou do e-mail</li>
+ *   <li>GET /usuarios/changes - Acompanha as alterações de usuários (Server-Sent Events)</li>
  *   <li>POST /usuarios - Cria um novo usuário</li>
+ *   <li>POST /usuarios/batch - Cria vários usuários (JSON ou NDJSON) em lote</li>
  *   <li>PUT /usuarios - Atualiza ou cria um usuário (com ID especificado)</li>
+ *   <li>PATCH /usuarios/{id} - Atualiza apenas os campos enviados</li>
+ *   <li>PATCH /usuarios - Altera o nome e/ou o telefone de vários usuários de uma vez</li>
  *   <li>DELETE /usuarios/{id} - Exclui um usuário pelo ID</li>
- *   <li>POST /usuarios/login - Valida a senha de um usuário</li>
+ *   <li>DELETE /usuarios - Exclui vários usuários (por lista de IDs ou domínio de e-mail)</li>
+ *   <li>POST /usuarios/login - Valida a senha de um usuário pelo e-mail</li>
  * </ul>
  *
- * <p>Permite acesso CORS de qualquer origem.</p>
+ * <p>Nenhuma resposta traz a senha. Chamadas internas podem pedir CBOR (Accept: application/cbor) no lugar de JSON,
+ * e respostas maiores que {@code server.compression.min-response-size} saem com gzip quando o cliente aceita
+ * (ver {@link ConfiguracaoRespostas}).</p>
+ *
+ * <p>Permite acesso CORS de qualquer origem. O cabeçalho de leitura após escrita ({@link LeituraAposEscrita}) e a
+ * ETag ficam visíveis ao JavaScript do navegador.</p>
  */
 @RestController
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = {LeituraAposEscrita.CABECALHO, HttpHeaders.ETAG})
 @RequestMapping("/usuarios")
 public class UsuarioController {
 
     // Camada de serviço para regras de negócio relacionadas a usuários
     private final UsuarioService usuarioService;
 
+    // Fluxo SSE das alterações de usuários
+    private final FeedAlteracoes feedAlteracoes;
+
+    // Índice em memória do nome e do e-mail, usado pela busca por trecho
+    private final IndiceBuscaUsuarios indiceBusca;
+
     /**
      * Construtor para injeção de dependência do serviço.
      *
      * param usuarioService Serviço contendo a lógica de negócio para usuários.
+     * param feedAlteracoes Fluxo das alterações de usuários, exposto em /usuarios/changes.
+     * param indiceBusca Índice de busca por trecho do nome e do e-mail, usado em /usuarios/search.
      */
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, FeedAlteracoes feedAlteracoes,
+                             IndiceBuscaUsuarios indiceBusca) {
         this.usuarioService = usuarioService;
+        this.feedAlteracoes = feedAlteracoes;
+        this.indiceBusca = indiceBusca;
     }
 
     /**
-     * Recupera todos os usuários cadastrados.
+     * Recupera uma página de usuários cadastrados, usando paginação por cursor.
+     * A senha não é incluída na resposta.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>GET /usuarios?apos=0&amp;tamanho=20</pre>
      *
      * <p><b>Exemplo de resposta:</b></p>
      * <pre>
-     * [
-     *   {
-     *     "id": 1,
-     *     "nome": "João Silva",
-     *     "email": "joao@email.com",
-     *     "senha": "senha123",
-     *     "telefone": "(11) 99999-9999"
-     *   }
-     * ]
+     * {
+     *   "usuarios": [
+     *     {
+     *       "id": 1,
+     *       "version": 0,
+     *       "nome": "João Silva",
+     *       "email": "joao@email.com",
+     *       "telefone": "(11) 99999-9999"
+     *     }
+     *   ],
+     *   "proximo": 1
+     * }
      * </pre>
      *
-     * return ResponseEntity com lista de usuários e status HTTP 200 (OK).
+     * <p>A resposta traz uma ETag calculada a partir dos IDs e das versões da página buscada (ver
+     * {@link EtagUsuario#dePagina}). Se o cliente enviar essa ETag em If-None-Match e nenhum usuário da página
+     * tiver sido alterado, a resposta é 304 (Not Modified): a página continua sendo buscada, em uma única consulta,
+     * mas não é serializada nem enviada.</p>
+     *
+     * param apos ID do último usuário recebido na página anterior (padrão 0).
+     * param tamanho Quantidade de usuários por página (padrão 20, máximo 100).
+     * param request Requisição atual, usada para conferir o If-None-Match.
+     * return ResponseEntity com a página de usuários e status HTTP 200 (OK), ou 304 (Not Modified).
      */
     @GetMapping
-    public ResponseEntity<List<Usuario>> listaUsuarios() {
-        return ResponseEntity.status(200).body(usuarioService.listarUsuario());
+    public ResponseEntity<PaginaUsuarios> listaUsuarios(@RequestParam(defaultValue = "0") int apos,
+                                                        @RequestParam(defaultValue = "20") int tamanho,
+                                                        WebRequest request) {
+        PaginaUsuarios pagina = usuarioService.listarUsuario(apos, tamanho);
+        String etag = EtagUsuario.dePagina(pagina);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.status(200).eTag(etag).body(pagina);
+    }
+
+    /**
+     * Recupera um usuário pelo ID. A consulta é atendida pelo cache em memória sempre que possível.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>GET /usuarios/1</pre>
+     *
+     * <p>A resposta traz a ETag {@code "id-versao"}. Se o cliente enviar essa ETag em If-None-Match e o usuário
+     * não tiver mudado, a resposta é 304 (Not Modified), sem serializar o corpo.</p>
+     *
+     * param id ID do usuário.
+     * return ResponseEntity com o usuário (sem a senha) e status HTTP 200 (OK),
+     *         HTTP 304 (Not Modified) ou HTTP 404 (Not Found) se o usuário não existir.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UsuarioResumo> buscarUsuario(@PathVariable Integer id) {
+        UsuarioResumo usuario = usuarioService.buscarUsuario(id);
+        return ResponseEntity.status(200).eTag(EtagUsuario.de(usuario)).body(usuario);
+    }
+
+    /**
+     * Exporta todos os usuários cadastrados em NDJSON (padrão) ou CSV.
+     *
+     * <p>A resposta é gerada em fluxo: as linhas são escritas no corpo à medida que são lidas do banco,
+     * então o uso de memória não depende da quantidade de usuários. A senha não é exportada.</p>
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>GET /usuarios/export?formato=csv</pre>
+     *
+     * param formato Formato do arquivo: "ndjson" ou "csv".
+     * return ResponseEntity com o corpo em fluxo e status HTTP 200 (OK).
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios(@RequestParam(defaultValue = "ndjson") String formato) {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+        // O corpo é escrito em outra thread: a marca de leitura após escrita é capturada aqui e repassada
+        boolean primario = LeituraAposEscrita.exigePrimario();
+        StreamingResponseBody corpo = saida -> LeituraAposEscrita.executar(primario,
+                () -> usuarioService.exportarUsuarios(formatoExportacao, saida));
+        return ResponseEntity.status(200)
+                .contentType(MediaType.parseMediaType(formatoExportacao.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"usuarios." + formatoExportacao.getExtensao() + "\"")
+                .body(corpo);
+    }
+
+    /**
+     * Busca usuários cujo nome ou e-mail contenha o trecho informado, ignorando maiúsculas e acentos.
+     * A busca usa um índice em memória (ver {@link IndiceBuscaUsuarios}) e não consulta o banco.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>GET /usuarios/search?q=silva&amp;pagina=0&amp;tamanho=20</pre>
+     *
+     * <p><b>Exemplo de resposta:</b></p>
+     * <pre>
+     * {
+     *   "usuarios": [
+     *     { "id": 1, "version": 0, "nome": "João Silva", "email": "joao@email.com", "telefone": "(11) 99999-9999" }
+     *   ],
+     *   "total": 1,
+     *   "pagina": 0,
+     *   "completo": true
+     * }
+     * </pre>
+     *
+     * param q Trecho do nome ou do e-mail.
+     * param pagina Página desejada, a partir de 0.
+     * param tamanho Quantidade de usuários por página (padrão 20, máximo 100).
+     * return ResponseEntity com os usuários em ordem de relevância e status HTTP 200 (OK).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ResultadoBusca> buscarUsuarios(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "0") int pagina,
+                                                         @RequestParam(defaultValue = "20") int tamanho) {
+        // Página negativa vira a primeira, como o cursor negativo da listagem
+        return ResponseEntity.status(200).body(indiceBusca.buscar(q, Math.max(pagina, 0), tamanho));
+    }
+
+    /**
+     * Acompanha as criações, atualizações e exclusões de usuários em Server-Sent Events, no lugar de
+     * consultar GET /usuarios periodicamente.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>GET /usuarios/changes</pre>
+     *
+     * <p><b>Exemplo de evento:</b></p>
+     * <pre>
+     * id:1760620000000-42
+     * event:ATUALIZADO
+     * data:{"tipo":"ATUALIZADO","id":1,"version":3,"usuario":{"id":1,"version":3,"nome":"João Silva",...}}
+     * </pre>
+     *
+     * <p>Ao reconectar, o EventSource envia o cabeçalho Last-Event-ID e recebe os eventos perdidos. Se eles já
+     * tiverem saído do histórico, chega o evento {@code reinicio} e o cliente deve recarregar GET /usuarios.</p>
+     *
+     * param ultimoEventoId ID do último evento recebido (cabeçalho Last-Event-ID), na reconexão.
+     * return Emissor SSE da conexão, com status HTTP 200 (OK).
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharAlteracoes(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return feedAlteracoes.assinar(ultimoEventoId);
     }
 
     /**
@@ -82,11 +238,41 @@ public class UsuarioController {
      * </pre>
      *
      * param usuario Dados do novo usuário (ID será gerado automaticamente).
-     * return ResponseEntity com o usuário criado e status HTTP 201 (Created).
+     * return ResponseEntity com o usuário criado (sem a senha) e status HTTP 201 (Created).
      */
     @PostMapping
-    public ResponseEntity<Usuario> criarUsuario(@Valid @RequestBody Usuario usuario) {
-        return ResponseEntity.status(201).body(usuarioService.criarUsuario(usuario));
+    public ResponseEntity<UsuarioResumo> criarUsuario(@Valid @RequestBody Usuario usuario) {
+        return ResponseEntity.status(201).body(UsuarioResumo.de(usuarioService.criarUsuario(usuario)));
+    }
+
+    /**
+     * Cria vários usuários de uma vez, a partir de um array JSON ou de NDJSON (um objeto por linha).
+     *
+     * <p>As senhas são criptografadas em paralelo e as linhas são inseridas em batches JDBC.
+     * Cada linha recebe seu próprio resultado: 201 com o ID gerado, 400 com os erros de validação
+     * ou 409 em caso de conflito no banco. Os blocos já inseridos permanecem gravados mesmo que
+     * um bloco posterior falhe.</p>
+     *
+     * <p><b>Exemplo de requisição (application/x-ndjson):</b></p>
+     * <pre>
+     * {"nome": "Ana Souza", "email": "ana@email.com", "senha": "senha123", "telefone": "(11) 11111-1111"}
+     * {"nome": "Bruno Lima", "email": "bruno@email.com", "senha": "senha456", "telefone": "(11) 22222-2222"}
+     * </pre>
+     *
+     * <p><b>Exemplo de resposta:</b></p>
+     * <pre>
+     * [
+     *   {"indice": 0, "status": 201, "id": 10, "erros": {}},
+     *   {"indice": 1, "status": 201, "id": 11, "erros": {}}
+     * ]
+     * </pre>
+     *
+     * param corpo Corpo da requisição lido em fluxo.
+     * return ResponseEntity com o resultado de cada linha e status HTTP 200 (OK).
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<List<ResultadoLote>> criarUsuariosEmLote(InputStream corpo) {
+        return ResponseEntity.status(200).body(usuarioService.criarUsuariosEmLote(corpo));
     }
 
     /**
@@ -113,12 +299,56 @@ public class UsuarioController {
      * }
      * </pre>
      *
+     * <p>Com o cabeçalho If-Match (ETag lida em GET /usuarios/{id}), a atualização só é aplicada se o usuário
+     * ainda estiver naquela versão, sem leitura extra (a menos que a senha enviada tenha o formato de um hash
+     * BCrypt, que é comparado com o gravado); caso contrário, retorna 412 (Precondition Failed).</p>
+     *
      * param usuario Dados do usuário com ID obrigatório.
-     * return ResponseEntity com o usuário atualizado/criado e status HTTP 201 (Created).
+     * param ifMatch ETag esperada do usuário (opcional).
+     * return ResponseEntity com o usuário atualizado/criado (sem a senha) e status HTTP 201 (Created).
      */
     @PutMapping
-    public ResponseEntity<Usuario> editarUsuario(@Valid @RequestBody Usuario usuario) {
-        return ResponseEntity.status(201).body(usuarioService.editarUsuario(usuario));
+    public ResponseEntity<UsuarioResumo> editarUsuario(@Valid @RequestBody Usuario usuario,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Integer versaoEsperada = EtagUsuario.versaoEsperada(ifMatch, usuario.getId());
+        Usuario salvo = usuarioService.editarUsuario(usuario, versaoEsperada);
+        return ResponseEntity.status(201).eTag(EtagUsuario.de(salvo.getId(), salvo.getVersion())).body(UsuarioResumo.de(salvo));
+    }
+
+    /**
+     * Atualiza parcialmente um usuário: apenas os campos enviados são alterados.
+     *
+     * <p>A senha só é criptografada quando uma nova senha é enviada. Se {@code version} for informada,
+     * a alteração só é aplicada se o usuário ainda estiver nessa versão; caso contrário, retorna 409.</p>
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>
+     * PATCH /usuarios/1
+     * {
+     *   "telefone": "(11) 98888-7777",
+     *   "version": 3
+     * }
+     * </pre>
+     *
+     * <p>A versão também pode ser enviada no cabeçalho If-Match (ETag); nesse caso ela prevalece sobre a do corpo
+     * e uma versão desatualizada retorna 412 (Precondition Failed).</p>
+     *
+     * param id ID do usuário a ser alterado.
+     * param dados Campos a alterar.
+     * param ifMatch ETag esperada do usuário (opcional).
+     * return ResponseEntity com o usuário atualizado (sem a senha) e status HTTP 200 (OK),
+     *         HTTP 404 (Not Found) se o usuário não existir ou HTTP 409/412 se a versão estiver desatualizada.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<UsuarioResumo> atualizarUsuario(@PathVariable Integer id,
+                                                          @Valid @RequestBody AtualizacaoUsuario dados,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Integer versaoEsperada = EtagUsuario.versaoEsperada(ifMatch, id);
+        if (versaoEsperada != null) {
+            dados = new AtualizacaoUsuario(dados.nome(), dados.email(), dados.senha(), dados.telefone(), versaoEsperada);
+        }
+        UsuarioResumo usuario = usuarioService.atualizarUsuario(id, dados);
+        return ResponseEntity.status(200).eTag(EtagUsuario.de(usuario)).body(usuario);
     }
 
     /**
@@ -127,15 +357,68 @@ public class UsuarioController {
      * <p><b>Exemplo de requisição:</b></p>
      * <pre>DELETE /usuarios/1</pre>
      *
+     * <p>Com o cabeçalho If-Match, o usuário só é removido se ainda estiver na versão da ETag,
+     * com um único DELETE condicional; caso contrário, retorna 412 (Precondition Failed).</p>
+     *
      * param id ID do usuário a ser removido.
-     * return ResponseEntity vazia com status HTTP 204 (No Content).
+     * param ifMatch ETag esperada do usuário (opcional).
+     * return ResponseEntity vazia com status HTTP 204 (No Content), ou HTTP 404 (Not Found) se o usuário não existir.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> excluirUsuario(@PathVariable Integer id) {
-        usuarioService.excluirUsuario(id);
+    public ResponseEntity<?> excluirUsuario(@PathVariable Integer id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        usuarioService.excluirUsuario(id, EtagUsuario.versaoEsperada(ifMatch, id));
         return ResponseEntity.status(204).build();
     }
 
+    /**
+     * Exclui vários usuários de uma vez, pela lista de IDs ou pelo domínio do e-mail (por exemplo, contas de uma
+     * empresa que deixou de ser cliente). A exclusão roda em blocos, com um único DELETE por bloco.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>
+     * DELETE /usuarios
+     * {
+     *   "ids": [10, 11, 12]
+     * }
+     * </pre>
+     *
+     * <p><b>Exemplo de resposta:</b></p>
+     * <pre>
+     * {
+     *   "afetados": 3
+     * }
+     * </pre>
+     *
+     * param pedido IDs ou domínio dos usuários a excluir.
+     * return ResponseEntity com a quantidade de usuários excluídos e status HTTP 200 (OK).
+     */
+    @DeleteMapping
+    public ResponseEntity<ResultadoMassa> excluirUsuarios(@Valid @RequestBody ExclusaoEmMassa pedido) {
+        return ResponseEntity.status(200).body(new ResultadoMassa(usuarioService.excluirUsuarios(pedido)));
+    }
+
+    /**
+     * Aplica o mesmo nome e/ou telefone a vários usuários, com um único UPDATE por bloco de IDs.
+     * A versão de cada usuário alterado é incrementada.
+     *
+     * <p><b>Exemplo de requisição:</b></p>
+     * <pre>
+     * PATCH /usuarios
+     * {
+     *   "ids": [10, 11, 12],
+     *   "telefone": "(11) 3000-0000"
+     * }
+     * </pre>
+     *
+     * param pedido IDs dos usuários e campos a alterar.
+     * return ResponseEntity com a quantidade de usuários alterados e status HTTP 200 (OK).
+     */
+    @PatchMapping
+    public ResponseEntity<ResultadoMassa> atualizarUsuarios(@Valid @RequestBody AtualizacaoEmMassa pedido) {
+        return ResponseEntity.status(200).body(new ResultadoMassa(usuarioService.atualizarUsuarios(pedido)));
+    }
+
     /**
      * Valida a senha de um usuário.
      *
@@ -147,13 +430,13 @@ public class UsuarioController {
      * }
      * </pre>
      *
-     * param usuario Objeto contendo email e senha do usuário.
+     * param login Objeto contendo email e senha do usuário.
      * return ResponseEntity com status HTTP 200 (OK) se a senha for válida,
-     *         ou HTTP 401 (Unauthorized) se a senha for inválida.
+     *         ou HTTP 401 (Unauthorized) se o e-mail não existir ou a senha for inválida.
      */
     @PostMapping("/login")
-    public ResponseEntity<Usuario> validarSenha(@Valid @RequestBody Usuario usuario) {
-        Boolean valido = usuarioService.validarSenha(usuario);
+    public ResponseEntity<Void> validarSenha(@Valid @RequestBody DadosLogin login) {
+        Boolean valido = usuarioService.validarSenha(login);
         if (!valido) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         } else {
@@ -181,4 +464,73 @@ public class UsuarioController {
         });
         return errors;
     }
+
+    /**
+     * Manipula violações de restrições do banco de dados, como um e-mail já cadastrado.
+     *
+     * param ex Exceção lançada pelo Spring Data ao violar uma restrição de integridade.
+     * return Mapa com a mensagem de erro e status HTTP 409 (Conflict).
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public Map<String, String> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        return Map.of("erro", "Usuário viola uma restrição do banco de dados (e-mail já cadastrado?)");
+    }
+
+    /**
+     * Manipula o cadastro de um e-mail que já pertence a outro usuário.
+     *
+     * param ex Exceção lançada pelo UsuarioService ao encontrar o e-mail já cadastrado.
+     * return Mapa com a mensagem de erro e status HTTP 409 (Conflict).
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(EmailJaCadastradoException.class)
+    public Map<String, String> handleEmailJaCadastradoException(EmailJaCadastradoException ex) {
+        return Map.of("erro", ex.getMessage());
+    }
+
+    /**
+     * Manipula versões desatualizadas informadas pelo cliente.
+     *
+     * <p>Quando a versão veio do cabeçalho If-Match, responde 412 (Precondition Failed), como define o HTTP;
+     * quando veio no corpo da requisição, responde 409 (Conflict).</p>
+     *
+     * param ex Exceção lançada quando a versão esperada não é a versão atual do usuário.
+     * param request Requisição atual, usada para verificar se havia If-Match.
+     * return ResponseEntity com a mensagem de erro e status HTTP 409 ou 412.
+     */
+    @ExceptionHandler(ConflitoVersaoException.class)
+    public ResponseEntity<Map<String, String>> handleConflitoVersaoException(ConflitoVersaoException ex, WebRequest request) {
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(Map.of("erro", ex.getMessage()));
+    }
+
+    /**
+     * Manipula falhas de concorrência otimista, quando o usuário foi alterado por outra requisição
+     * entre a leitura e a gravação (coluna {@code version} desatualizada).
+     *
+     * param ex Exceção lançada pelo Spring/Hibernate ao detectar a versão desatualizada.
+     * return Mapa com a mensagem de erro e status HTTP 409 (Conflict).
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Map<String, String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return Map.of("erro", "O usuário foi alterado por outra requisição; leia-o novamente e tente de novo");
+    }
+
+    /**
+     * Manipula a recusa de requisições por sobrecarga (por exemplo, fila de criptografia de senhas cheia).
+     *
+     * <p>Responde imediatamente com HTTP 503 e o cabeçalho Retry-After, em vez de deixar a requisição
+     * esperando e ocupando uma thread do servidor.</p>
+     *
+     * param ex Exceção lançada quando o serviço recusa a tarefa.
+     * return ResponseEntity com a mensagem de erro e status HTTP 503 (Service Unavailable).
+     */
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<Map<String, String>> handleSobrecargaException(SobrecargaException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getTentarNovamenteEmSegundos()))
+                .body(Map.of("erro", ex.getMessage()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package br.com.criandoapi.projeto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o usuário com o ID informado não existe.
+ * Convertida em HTTP 404 (Not Found).
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UsuarioNaoEncontradoException extends RuntimeException {
+
+    public UsuarioNaoEncontradoException(int id) {
+        super("Usuário " + id + " não encontrado");
+    }
+}
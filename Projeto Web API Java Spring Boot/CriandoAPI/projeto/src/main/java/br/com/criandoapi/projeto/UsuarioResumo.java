@@ -0,0 +1,28 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Projeção somente leitura da entidade Usuario usada nas respostas da API.
+ * Contém apenas as colunas necessárias para exibição, sem a senha criptografada.
+ *
+ * <p>Como é montada diretamente na consulta JPQL (expressão "select new"), o Hibernate seleciona
+ * somente estas colunas e não cria entidades gerenciadas no contexto de persistência.</p>
+ *
+ * param id Identificador do usuário.
+ * param version Versão do registro (coluna de controle de concorrência otimista).
+ * param nome Nome completo do usuário.
+ * param email Endereço de e-mail do usuário.
+ * param telefone Número de telefone do usuário.
+ */
+public record UsuarioResumo(int id, int version, String nome, String email, String telefone) {
+
+    /**
+     * Cria o resumo a partir de uma entidade já carregada.
+     *
+     * param usuario Entidade de origem.
+     * return Resumo com os mesmos dados, sem a senha.
+     */
+    public static UsuarioResumo de(Usuario usuario) {
+        return new UsuarioResumo(usuario.getId(), usuario.getVersion(), usuario.getNome(),
+                usuario.getEmail(), usuario.getTelefone());
+    }
+}
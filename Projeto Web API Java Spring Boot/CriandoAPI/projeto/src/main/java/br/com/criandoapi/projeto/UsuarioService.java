@@ -1,75 +1,456 @@
 package br.com.criandoapi.projeto;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável por implementar a lógica de negócio relacionada à entidade Usuario.
- * Esta classe gerencia operações como listagem, criação, edição, exclusão e validação de senha de usuários.
+ * Esta classe gerencia operações como listagem paginada, criação, edição, exclusão e validação de senha de usuários.
  *
- * <p>Utiliza um repositório (IUsuario) para interagir com o banco de dados e um codificador de senhas (BCryptPasswordEncoder)
+ * <p>Utiliza um repositório (IUsuario) para interagir com o banco de dados e um codificador de senhas (CodificadorSenhas)
  * para garantir a segurança das senhas dos usuários.</p>
  */
 @Service
 public class UsuarioService {
 
+    // Tamanho máximo de página aceito na listagem de usuários
+    public static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     // Repositório para operações de banco de dados relacionadas a usuários
     private final IUsuario repository;
 
     // Codificador de senhas para criptografar e validar senhas
-    private final PasswordEncoder passwordEncoder;
+    private final CodificadorSenhas codificadorSenhas;
+
+    // Serializador JSON usado na exportação em NDJSON e na leitura do cadastro em lote
+    private final ObjectMapper objectMapper;
+
+    // Validador das anotações de Bean Validation da entidade, usado linha a linha no cadastro em lote
+    private final Validator validator;
+
+    // Controle programático de transações, usado para confirmar cada bloco do cadastro em lote separadamente
+    private final TransactionTemplate transactionTemplate;
+
+    // Quantidade de linhas enviadas ao banco em cada batch JDBC do cadastro em lote
+    private final int tamanhoBloco;
+
+    // Cache das consultas de usuário por ID
+    private final CacheUsuarios cacheUsuarios;
+
+    // Publicador dos eventos de alteração de usuários (mantém cache e demais cópias consistentes)
+    private final ApplicationEventPublisher eventos;
+
+    // Filtro de Bloom dos e-mails cadastrados, que evita a consulta de e-mail duplicado na maioria dos cadastros
+    private final FiltroBloomEmails filtroEmails;
+
+    // Gravação agrupada (group commit) opcional dos cadastros individuais
+    private final GravacaoAgrupada gravacaoAgrupada;
 
     /**
-     * Construtor para injeção de dependência do repositório e inicialização do codificador de senhas.
+     * Construtor para injeção de dependências do serviço.
      *
      * param repository Repositório de usuários para operações de banco de dados.
+     * param codificadorSenhas Codificador responsável pelo BCrypt.
+     * param objectMapper Serializador JSON configurado pelo Spring Boot.
+     * param validator Validador de Bean Validation configurado pelo Spring Boot.
+     * param transactionTemplate Modelo de transação programática.
+     * param tamanhoBloco Tamanho de cada bloco do cadastro em lote (propriedade usuarios.lote.tamanho-bloco).
+     * param cacheUsuarios Cache das consultas de usuário por ID.
+     * param eventos Publicador de eventos do Spring.
+     * param filtroEmails Filtro de Bloom dos e-mails cadastrados.
+     * param gravacaoAgrupada Gravação agrupada dos cadastros individuais.
      */
-    public UsuarioService(IUsuario repository) {
+    public UsuarioService(IUsuario repository,
+                          CodificadorSenhas codificadorSenhas,
+                          ObjectMapper objectMapper,
+                          Validator validator,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${usuarios.lote.tamanho-bloco:500}") int tamanhoBloco,
+                          CacheUsuarios cacheUsuarios,
+                          ApplicationEventPublisher eventos,
+                          FiltroBloomEmails filtroEmails,
+                          GravacaoAgrupada gravacaoAgrupada) {
         this.repository = repository;
-        this.passwordEncoder = new BCryptPasswordEncoder(); // Inicializa o codificador de senhas
+        this.codificadorSenhas = codificadorSenhas;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoBloco = tamanhoBloco;
+        this.cacheUsuarios = cacheUsuarios;
+        this.eventos = eventos;
+        this.filtroEmails = filtroEmails;
+        this.gravacaoAgrupada = gravacaoAgrupada;
+    }
+
+    /**
+     * Retorna uma página de usuários a partir do cursor informado (paginação keyset por ID).
+     * O tamanho da página é limitado a {@link #TAMANHO_MAXIMO_PAGINA} para manter o uso de memória
+     * por requisição constante, independentemente do tamanho da tabela.
+     *
+     * <p>Por ser somente leitura, é atendida por uma réplica quando houver (ver {@link RoteadorDataSource}).</p>
+     *
+     * param apos ID do último usuário já recebido (0 para a primeira página).
+     * param tamanho Quantidade de usuários desejada na página.
+     * return Página com os resumos dos usuários e o cursor da próxima página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaUsuarios listarUsuario(int apos, int tamanho) {
+        int limite = Math.clamp(tamanho, 1, TAMANHO_MAXIMO_PAGINA);
+
+        // Busca um registro a mais para saber se existe próxima página sem precisar de um count()
+        List<UsuarioResumo> usuarios = repository.buscarPagina(Math.max(apos, 0), Limit.of(limite + 1));
+        if (usuarios.size() <= limite) {
+            return new PaginaUsuarios(usuarios, null);
+        }
+
+        List<UsuarioResumo> pagina = usuarios.subList(0, limite);
+        return new PaginaUsuarios(List.copyOf(pagina), pagina.get(limite - 1).id());
     }
 
     /**
-     * Retorna uma lista de todos os usuários cadastrados no banco de dados.
+     * Busca um usuário pelo ID, usando o cache em memória.
      *
-     * return Lista de objetos Usuario.
+     * param id ID do usuário.
+     * return Resumo do usuário (sem a senha).
+     * throws UsuarioNaoEncontradoException se o usuário não existir.
      */
-    public List<Usuario> listarUsuario() {
-        return repository.findAll();
+    public UsuarioResumo buscarUsuario(int id) {
+        return cacheUsuarios.buscar(id, repository::buscarResumoPorId)
+                .orElseThrow(() -> new UsuarioNaoEncontradoException(id));
+    }
+
+    /**
+     * Exporta todos os usuários no formato informado, escrevendo cada linha diretamente na saída.
+     *
+     * <p>Os registros são lidos por um Stream com fetch size dentro de uma transação somente leitura,
+     * então em nenhum momento a tabela inteira fica em memória: cada usuário é serializado e descartado
+     * antes do próximo ser lido. A senha não é exportada.</p>
+     *
+     * param formato Formato de saída (NDJSON ou CSV).
+     * param saida Fluxo de saída onde os dados serão escritos (normalmente o corpo da resposta HTTP).
+     * throws IOException se ocorrer erro de escrita na saída.
+     */
+    @Transactional(readOnly = true)
+    public void exportarUsuarios(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<UsuarioResumo> usuarios = repository.percorrerTodos()) {
+            switch (formato) {
+                case NDJSON -> exportarNdjson(usuarios.iterator(), saida);
+                case CSV -> exportarCsv(usuarios.iterator(), saida);
+            }
+        }
+    }
+
+    // Escreve um objeto JSON por linha, sem fechar a saída ao final
+    private void exportarNdjson(Iterator<UsuarioResumo> usuarios, OutputStream saida) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(UsuarioResumo.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(saida)) {
+            while (usuarios.hasNext()) {
+                writer.write(usuarios.next());
+            }
+        }
+        saida.write('\n');
+        saida.flush();
+    }
+
+    // Escreve o cabeçalho e uma linha CSV por usuário
+    private void exportarCsv(Iterator<UsuarioResumo> usuarios, OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write("id,version,nome,email,telefone\n");
+        while (usuarios.hasNext()) {
+            UsuarioResumo usuario = usuarios.next();
+            writer.write(Integer.toString(usuario.id()));
+            writer.write(',');
+            writer.write(Integer.toString(usuario.version()));
+            writer.write(',');
+            escreverCampoCsv(writer, usuario.nome());
+            writer.write(',');
+            escreverCampoCsv(writer, usuario.email());
+            writer.write(',');
+            escreverCampoCsv(writer, usuario.telefone());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // Coloca o campo entre aspas quando ele contém vírgula, aspas ou quebra de linha (RFC 4180)
+    private static void escreverCampoCsv(Writer writer, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
     }
 
     /**
      * Cria um novo usuário no banco de dados, criptografando a senha antes de salvar.
      *
+     * <p>Antes do BCrypt, verifica se o e-mail já está cadastrado. O filtro de Bloom responde sem ir ao banco
+     * quando o e-mail é novo; só quando ele pode já existir é feita a consulta pelo índice único.</p>
+     *
+     * <p>Com {@code usuarios.cadastro.agrupado.ativo=true}, a gravação é feita pela {@link GravacaoAgrupada}:
+     * cadastros simultâneos compartilham um único commit, e o método só retorna depois desse commit.</p>
+     *
      * param usuario Objeto Usuario contendo os dados do novo usuário.
      * return O usuário criado, com a senha criptografada.
+     * throws EmailJaCadastradoException se o e-mail já pertencer a outro usuário.
      */
     public Usuario criarUsuario(Usuario usuario) {
+        if (filtroEmails.possivelmenteCadastrado(usuario.getEmail())) {
+            if (repository.existsByEmail(usuario.getEmail())) {
+                throw new EmailJaCadastradoException(usuario.getEmail());
+            }
+            filtroEmails.falsoPositivo();
+        }
+
         // Criptografa a senha do usuário
-        String senhaCriptografada = this.passwordEncoder.encode(usuario.getSenha());
+        String senhaCriptografada = this.codificadorSenhas.codificar(usuario.getSenha());
         usuario.setSenha(senhaCriptografada);
 
+        // Com o group commit, o usuário é gravado junto com os cadastros simultâneos e o evento é publicado
+        // pela thread gravadora, logo depois do commit
+        if (gravacaoAgrupada.isAtivo()) {
+            return gravacaoAgrupada.inserir(usuario);
+        }
+
         // Salva o usuário no banco de dados
-        return repository.save(usuario);
+        Usuario criado = repository.save(usuario);
+        eventos.publishEvent(UsuarioAlterado.criado(UsuarioResumo.de(criado)));
+        return criado;
+    }
+
+    /**
+     * Cria vários usuários a partir de um corpo JSON (array) ou NDJSON (um objeto por linha).
+     *
+     * <p>O corpo é lido em fluxo e processado em blocos de {@code tamanhoBloco} linhas. Em cada bloco,
+     * as senhas são criptografadas em paralelo e as linhas são inseridas com um único batch JDBC,
+     * em uma transação própria. Linhas inválidas não interrompem o lote: cada uma recebe seu próprio resultado.
+     * Se um bloco violar alguma restrição do banco, ele é refeito linha a linha para identificar as linhas com conflito.</p>
+     *
+     * param corpo Corpo da requisição com os usuários.
+     * return Resultado de cada linha, na ordem em que foram enviadas.
+     * throws ResponseStatusException com status 400 se o corpo não for um JSON/NDJSON válido.
+     */
+    public List<ResultadoLote> criarUsuariosEmLote(InputStream corpo) {
+        try (MappingIterator<Usuario> usuarios = objectMapper.readerFor(Usuario.class).readValues(corpo)) {
+            return criarUsuariosEmLote(usuarios);
+        } catch (RuntimeJsonMappingException | JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Corpo do lote inválido: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Não foi possível ler o corpo do lote", e);
+        }
+    }
+
+    /**
+     * Cria vários usuários a partir de um iterador, em blocos com batch JDBC.
+     *
+     * param usuarios Usuários a criar, com as senhas em texto puro.
+     * return Resultado de cada linha, na ordem do iterador.
+     */
+    public List<ResultadoLote> criarUsuariosEmLote(Iterator<Usuario> usuarios) {
+        List<ResultadoLote> resultados = new ArrayList<>();
+        List<Usuario> bloco = new ArrayList<>(tamanhoBloco);
+        List<Integer> indices = new ArrayList<>(tamanhoBloco);
+
+        int indice = 0;
+        while (usuarios.hasNext()) {
+            Usuario usuario = usuarios.next();
+            Map<String, String> erros = validar(usuario);
+            if (erros.isEmpty()) {
+                bloco.add(usuario);
+                indices.add(indice);
+            } else {
+                resultados.add(ResultadoLote.invalido(indice, erros));
+            }
+            indice++;
+
+            if (bloco.size() == tamanhoBloco) {
+                inserirBloco(bloco, indices, resultados);
+                bloco.clear();
+                indices.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            inserirBloco(bloco, indices, resultados);
+        }
+
+        resultados.sort(Comparator.comparingInt(ResultadoLote::indice));
+        return resultados;
+    }
+
+    // Valida a linha com as mesmas regras do @Valid, devolvendo o mapa campo -> mensagem
+    private Map<String, String> validar(Usuario usuario) {
+        Map<String, String> erros = new HashMap<>();
+        for (ConstraintViolation<Usuario> violacao : validator.validate(usuario)) {
+            erros.put(violacao.getPropertyPath().toString(), violacao.getMessage());
+        }
+        return erros;
+    }
+
+    // Criptografa as senhas do bloco em paralelo e insere tudo em um único batch JDBC
+    private void inserirBloco(List<Usuario> bloco, List<Integer> indices, List<ResultadoLote> resultados) {
+        List<String> hashes = codificadorSenhas.codificarTodos(bloco.stream().map(Usuario::getSenha).toList());
+        for (int i = 0; i < bloco.size(); i++) {
+            bloco.get(i).setSenha(hashes.get(i));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.inserirEmLote(bloco));
+            for (int i = 0; i < bloco.size(); i++) {
+                resultados.add(ResultadoLote.criado(indices.get(i), bloco.get(i).getId()));
+                eventos.publishEvent(UsuarioAlterado.criado(UsuarioResumo.de(bloco.get(i))));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // O bloco inteiro foi desfeito; insere linha a linha para isolar as linhas com conflito
+            for (int i = 0; i < bloco.size(); i++) {
+                Usuario usuario = bloco.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> repository.inserirEmLote(List.of(usuario)));
+                    resultados.add(ResultadoLote.criado(indices.get(i), usuario.getId()));
+                    eventos.publishEvent(UsuarioAlterado.criado(UsuarioResumo.de(usuario)));
+                } catch (DataIntegrityViolationException conflito) {
+                    resultados.add(ResultadoLote.conflito(indices.get(i), "Usuário viola uma restrição do banco de dados"));
+                }
+            }
+        }
     }
 
     /**
      * Atualiza os dados de um usuário existente ou cria um novo usuário se o ID não existir.
-     * A senha é criptografada antes de salvar.
+     * A senha é criptografada antes de salvar, a menos que seja exatamente o hash já armazenado para este usuário.
      *
      * param usuario Objeto Usuario contendo os dados atualizados.
      * return O usuário atualizado ou criado, com a senha criptografada.
      */
     public Usuario editarUsuario(Usuario usuario) {
-        // Criptografa a senha do usuário
-        String senhaCriptografada = this.passwordEncoder.encode(usuario.getSenha());
-        usuario.setSenha(senhaCriptografada);
+        return editarUsuario(usuario, null);
+    }
 
-        // Salva o usuário no banco de dados
-        return repository.save(usuario);
+    /**
+     * Atualiza os dados de um usuário, opcionalmente apenas se ele ainda estiver na versão esperada.
+     *
+     * <p>Com versão esperada (cabeçalho If-Match), a gravação é um único UPDATE condicionado à versão,
+     * sem ler o registro antes. A senha gravada só é consultada quando a senha enviada tem o formato de um hash
+     * BCrypt, para reconhecer o próprio hash reenviado pelo cliente. Sem versão esperada, segue o comportamento do {@code save()} (atualiza ou cria).</p>
+     *
+     * param usuario Objeto Usuario contendo os dados atualizados.
+     * param versaoEsperada Versão que o cliente leu, ou null para não verificar.
+     * return O usuário atualizado ou criado, com a senha criptografada.
+     * throws UsuarioNaoEncontradoException se houver versão esperada e o usuário não existir.
+     * throws ConflitoVersaoException se o usuário não estiver mais na versão esperada.
+     */
+    public Usuario editarUsuario(Usuario usuario, Integer versaoEsperada) {
+        // Criptografa a senha do usuário, exceto quando ela é o próprio hash já gravado para este ID
+        if (!senhaArmazenada(usuario.getId(), usuario.getSenha())) {
+            String senhaCriptografada = this.codificadorSenhas.codificar(usuario.getSenha());
+            usuario.setSenha(senhaCriptografada);
+        }
+
+        if (versaoEsperada != null) {
+            int alterados = repository.atualizarCampos(usuario.getId(), versaoEsperada,
+                    usuario.getNome(), usuario.getEmail(), usuario.getSenha(), usuario.getTelefone());
+            if (alterados == 0) {
+                throw falhaDeVersao(usuario.getId(), versaoEsperada);
+            }
+            usuario.setVersion(versaoEsperada + 1);
+            eventos.publishEvent(UsuarioAlterado.atualizado(UsuarioResumo.de(usuario)));
+            return usuario;
+        }
+
+        // Salva o usuário no banco de dados; versão 0 depois do save() indica que o ID não existia e a linha foi criada
+        Usuario salvo = repository.save(usuario);
+        UsuarioResumo resumo = UsuarioResumo.de(salvo);
+        eventos.publishEvent(salvo.getVersion() == 0 ? UsuarioAlterado.criado(resumo) : UsuarioAlterado.atualizado(resumo));
+        return salvo;
+    }
+
+    // Indica se a senha recebida é exatamente o hash gravado para o usuário. O formato só evita a consulta para senhas
+    // comuns; a decisão é sempre pelo valor do banco: um hash montado pelo cliente (com custo menor, por exemplo)
+    // é criptografado como qualquer senha
+    private boolean senhaArmazenada(int id, String senha) {
+        return codificadorSenhas.pareceHash(senha) && repository.buscarSenhaPorId(id).filter(senha::equals).isPresent();
+    }
+
+    // Quando um UPDATE/DELETE condicionado à versão não altera nada, diferencia usuário inexistente de versão desatualizada
+    private RuntimeException falhaDeVersao(int id, int versaoEsperada) {
+        if (!repository.existsById(id)) {
+            return new UsuarioNaoEncontradoException(id);
+        }
+        return new ConflitoVersaoException(id, versaoEsperada);
+    }
+
+    /**
+     * Atualiza parcialmente um usuário, alterando apenas os campos informados.
+     *
+     * <p>O BCrypt só é executado quando é enviada uma senha diferente do hash já armazenado. A alteração é feita com um único
+     * UPDATE dinâmico, sem ler a entidade antes; se a versão for informada, ela é conferida no próprio UPDATE
+     * (controle de concorrência otimista pela coluna {@code version}).</p>
+     *
+     * param id ID do usuário a ser alterado.
+     * param dados Campos a alterar e, opcionalmente, a versão lida pelo cliente.
+     * return Resumo do usuário após a alteração.
+     * throws UsuarioNaoEncontradoException se o usuário não existir.
+     * throws ConflitoVersaoException se a versão informada não for mais a versão atual.
+     */
+    public UsuarioResumo atualizarUsuario(int id, AtualizacaoUsuario dados) {
+        // Só criptografa quando veio uma senha diferente da gravada (reenviar o próprio hash não altera nada)
+        String senhaCriptografada = null;
+        if (dados.senha() != null && !senhaArmazenada(id, dados.senha())) {
+            senhaCriptografada = codificadorSenhas.codificar(dados.senha());
+        }
+
+        if (dados.nome() != null || dados.email() != null || senhaCriptografada != null || dados.telefone() != null) {
+            int alterados = repository.atualizarCampos(id, dados.version(),
+                    dados.nome(), dados.email(), senhaCriptografada, dados.telefone());
+            if (alterados == 0) {
+                if (dados.version() == null) {
+                    throw new UsuarioNaoEncontradoException(id);
+                }
+                throw falhaDeVersao(id, dados.version());
+            }
+        }
+
+        UsuarioResumo atualizado = repository.buscarResumoPorId(id).orElseThrow(() -> new UsuarioNaoEncontradoException(id));
+        eventos.publishEvent(UsuarioAlterado.atualizado(atualizado));
+        return atualizado;
     }
 
     /**
@@ -77,23 +458,138 @@ public class UsuarioService {
      *
      * param id ID do usuário a ser excluído.
      * return true se o usuário foi excluído com sucesso.
+     * throws UsuarioNaoEncontradoException se o usuário não existir.
      */
     public Boolean excluirUsuario(Integer id) {
-        repository.deleteById(id);
+        return excluirUsuario(id, null);
+    }
+
+    /**
+     * Exclui um usuário, opcionalmente apenas se ele ainda estiver na versão esperada.
+     * Com versão esperada (cabeçalho If-Match), a exclusão é um único DELETE condicionado à versão;
+     * sem ela, um único DELETE pelo ID (sem o SELECT prévio do {@code deleteById}).
+     *
+     * param id ID do usuário a ser excluído.
+     * param versaoEsperada Versão que o cliente leu, ou null para não verificar.
+     * return true se o usuário foi excluído com sucesso.
+     * throws UsuarioNaoEncontradoException se o usuário não existir.
+     * throws ConflitoVersaoException se o usuário não estiver mais na versão esperada.
+     */
+    public Boolean excluirUsuario(Integer id, Integer versaoEsperada) {
+        if (versaoEsperada != null) {
+            if (repository.excluirSeVersao(id, versaoEsperada) == 0) {
+                throw falhaDeVersao(id, versaoEsperada);
+            }
+            eventos.publishEvent(UsuarioAlterado.excluido(id, versaoEsperada));
+            return true;
+        }
+
+        // Nada excluído: não publica o evento (que geraria um "excluido" no feed à toa)
+        if (repository.excluirPorIds(List.of(id)) == 0) {
+            throw new UsuarioNaoEncontradoException(id);
+        }
+        eventos.publishEvent(UsuarioAlterado.excluido(id, -1));
         return true;
     }
 
     /**
-     * Valida a senha de um usuário comparando a senha fornecida com a senha criptografada armazenada no banco de dados.
+     * Exclui em massa os usuários com os IDs informados ou com e-mail no domínio informado.
+     *
+     * <p>Os usuários são processados em blocos de {@code tamanhoBloco}, cada um em uma transação própria com
+     * duas instruções: um SELECT só dos IDs (para saber quais existem) e um único DELETE {@code where id in (...)}.
+     * Nenhuma entidade é carregada. Depois do commit de cada bloco é publicada a exclusão de cada ID,
+     * mantendo cache, filtro de e-mails, índice de busca e feed consistentes. Blocos já confirmados permanecem
+     * excluídos mesmo que um bloco posterior falhe.</p>
+     *
+     * param pedido IDs ou domínio dos usuários a excluir.
+     * return Quantidade de usuários excluídos.
+     */
+    public int excluirUsuarios(ExclusaoEmMassa pedido) {
+        int excluidos = 0;
+        if (pedido.ids() != null) {
+            List<Integer> ids = pedido.ids().stream().distinct().toList();
+            for (int inicio = 0; inicio < ids.size(); inicio += tamanhoBloco) {
+                List<Integer> bloco = ids.subList(inicio, Math.min(inicio + tamanhoBloco, ids.size()));
+                excluidos += excluirBloco(() -> repository.buscarIdsExistentes(bloco), new ArrayList<>());
+            }
+            return excluidos;
+        }
+
+        // Pelo domínio, os blocos seguem a chave primária: cada um começa depois do maior ID do anterior
+        int cursor = 0;
+        while (true) {
+            int aposId = cursor;
+            List<Integer> selecionados = new ArrayList<>(tamanhoBloco);
+            excluidos += excluirBloco(() -> repository.buscarIdsPorDominio(pedido.dominio(), aposId, Limit.of(tamanhoBloco)),
+                    selecionados);
+            if (selecionados.size() < tamanhoBloco) {
+                return excluidos;
+            }
+            cursor = selecionados.getLast();
+        }
+    }
+
+    // Seleciona e exclui um bloco de IDs na mesma transação; publica a exclusão de cada ID após o commit
+    private int excluirBloco(Supplier<List<Integer>> selecao, List<Integer> selecionados) {
+        Integer excluidos = transactionTemplate.execute(status -> {
+            selecionados.addAll(selecao.get());
+            return selecionados.isEmpty() ? 0 : repository.excluirPorIds(selecionados);
+        });
+        for (int id : selecionados) {
+            eventos.publishEvent(UsuarioAlterado.excluido(id, -1));
+        }
+        return excluidos;
+    }
+
+    /**
+     * Altera o nome e/ou o telefone de vários usuários de uma vez.
+     *
+     * <p>Os IDs são processados em blocos de {@code tamanhoBloco}, cada um em uma transação própria com um único
+     * UPDATE {@code where id in (...)} que também incrementa a versão, seguido da leitura dos resumos alterados
+     * (projeção, sem entidades). Depois do commit de cada bloco é publicada a alteração de cada usuário.</p>
+     *
+     * param pedido IDs dos usuários e campos a alterar.
+     * return Quantidade de usuários alterados.
+     */
+    public int atualizarUsuarios(AtualizacaoEmMassa pedido) {
+        List<Integer> ids = pedido.ids().stream().distinct().toList();
+        int alterados = 0;
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoBloco) {
+            List<Integer> bloco = ids.subList(inicio, Math.min(inicio + tamanhoBloco, ids.size()));
+            List<UsuarioResumo> atualizados = new ArrayList<>(bloco.size());
+            alterados += transactionTemplate.execute(status -> {
+                int linhas = repository.atualizarEmMassa(bloco, pedido.nome(), pedido.telefone());
+                atualizados.addAll(repository.buscarResumosPorIds(bloco));
+                return linhas;
+            });
+            for (UsuarioResumo usuario : atualizados) {
+                eventos.publishEvent(UsuarioAlterado.atualizado(usuario));
+            }
+        }
+        return alterados;
+    }
+
+    /**
+     * Valida a senha de um usuário pelo e-mail, comparando a senha fornecida com o hash armazenado no banco de dados.
+     *
+     * <p>O login custa uma busca no índice único de e-mail, trazendo apenas o ID e o hash, mais a verificação do BCrypt.
+     * Se o e-mail não existir, uma verificação equivalente é feita mesmo assim, para que o tempo de resposta
+     * não revele quais e-mails estão cadastrados.</p>
+     *
+     * <p>Somente a busca da credencial roda em transação somente leitura (e pode ir para uma réplica); a verificação
+     * do BCrypt fica fora dela, para não segurar uma conexão do pool enquanto a senha é conferida.</p>
      *
-     * param usuario Objeto Usuario contendo o ID e a senha a ser validada.
+     * param login Objeto contendo o e-mail e a senha a ser validada.
      * return true se a senha for válida, false caso contrário.
      */
-    public Boolean validarSenha(Usuario usuario) {
-        // Recupera a senha criptografada do banco de dados
-        String senhaArmazenada = repository.getById(usuario.getId()).getSenha();
+    public Boolean validarSenha(DadosLogin login) {
+        // Recupera apenas o hash da senha armazenada no banco de dados
+        Optional<CredencialUsuario> credencial = repository.buscarCredencialPorEmail(login.email());
+        if (credencial.isEmpty()) {
+            return codificadorSenhas.confereInexistente(login.senha());
+        }
 
         // Compara a senha fornecida com a senha armazenada
-        return passwordEncoder.matches(usuario.getSenha(), senhaArmazenada);
+        return codificadorSenhas.confere(login.senha(), credencial.get().senha());
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por trecho no {@link IndiceBuscaUsuarios} com 1 milhão de usuários, para termos seletivos
+ * (poucos candidatos), comuns (muitos candidatos) e curtos (prefixo de palavra).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BuscaUsuariosBenchmark {
+
+	private static final int USUARIOS = 1_000_000;
+
+	private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Elisa", "Fábio", "Gabriela", "Heitor"};
+
+	private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Pereira", "Lima", "Conceição", "Ribeiro"};
+
+	@Param({"usuario123456", "silva", "ga"})
+	private String termo;
+
+	private IndiceBuscaUsuarios indice;
+
+	@Setup
+	public void preparar() {
+		indice = new IndiceBuscaUsuarios(null, null, new SimpleMeterRegistry());
+		for (int id = 1; id <= USUARIOS; id++) {
+			String nome = NOMES[id % NOMES.length] + " " + SOBRENOMES[(id / NOMES.length) % SOBRENOMES.length];
+			indice.aoAlterar(UsuarioAlterado.criado(
+					new UsuarioResumo(id, 0, nome, "usuario" + id + "@email.com", "(11) 90000-0000")));
+		}
+	}
+
+	@Benchmark
+	public ResultadoBusca buscar() {
+		return indice.buscar(termo, 0, 20);
+	}
+
+}
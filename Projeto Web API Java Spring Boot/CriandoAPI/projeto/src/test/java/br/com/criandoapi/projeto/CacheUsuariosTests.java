@@ -0,0 +1,89 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class CacheUsuariosTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private ApplicationEvents eventos;
+
+	private Statistics estatisticas;
+
+	@BeforeEach
+	void prepararEstatisticas() {
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void leiturasRepetidasNaoConsultamOBanco() {
+		int id = usuarioService.criarUsuario(novoUsuario("repetido@email.com")).getId();
+		estatisticas.clear();
+
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(id, usuarioService.buscarUsuario(id).id());
+		}
+
+		assertTrue(estatisticas.getQueryExecutionCount() <= 1,
+				"consultas executadas: " + estatisticas.getQueryExecutionCount());
+	}
+
+	@Test
+	void atualizacaoSubstituiEntradaPelaVersaoMaisNova() {
+		int id = usuarioService.criarUsuario(novoUsuario("atualizado@email.com")).getId();
+		usuarioService.buscarUsuario(id);
+
+		usuarioService.atualizarUsuario(id, new AtualizacaoUsuario(null, null, null, "(11) 12345-0000", 0));
+
+		UsuarioResumo lido = usuarioService.buscarUsuario(id);
+		assertEquals(1, lido.version());
+		assertEquals("(11) 12345-0000", lido.telefone());
+	}
+
+	@Test
+	void putDeIdInexistentePublicaCriacao() {
+		Usuario criado = usuarioService.editarUsuario(novoUsuario("put.novo@email.com"));
+		usuarioService.editarUsuario(criado);
+
+		List<UsuarioAlterado.Tipo> tipos = eventos.stream(UsuarioAlterado.class)
+				.filter(evento -> evento.id() == criado.getId())
+				.map(UsuarioAlterado::tipo)
+				.toList();
+		assertEquals(List.of(UsuarioAlterado.Tipo.CRIADO, UsuarioAlterado.Tipo.ATUALIZADO), tipos);
+	}
+
+	@Test
+	void exclusaoRemoveDoCache() {
+		int id = usuarioService.criarUsuario(novoUsuario("excluido@email.com")).getId();
+		usuarioService.buscarUsuario(id);
+
+		usuarioService.excluirUsuario(id);
+
+		assertThrows(UsuarioNaoEncontradoException.class, () -> usuarioService.buscarUsuario(id));
+	}
+
+}
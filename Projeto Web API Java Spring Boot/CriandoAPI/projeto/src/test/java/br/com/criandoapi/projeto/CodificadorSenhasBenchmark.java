@@ -0,0 +1,61 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de criptografar e conferir senhas com o {@link CodificadorSenhas} (o caminho usado pelo
+ * {@link UsuarioService} no cadastro, na edição e no login), em vários custos do BCrypt.
+ * Inclui a passagem pelo pool dedicado, para que a sobrecarga do executor também apareça no resultado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodificadorSenhasBenchmark {
+
+	@Param({"4", "8", "10", "12"})
+	private int forca;
+
+	private CodificadorSenhas codificadorSenhas;
+
+	private String hash;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		codificadorSenhas = new CodificadorSenhas(forca, 0, 256, 1000, 0, false, new SimpleMeterRegistry());
+		hash = codificadorSenhas.codificar("senha-benchmark");
+	}
+
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		codificadorSenhas.encerrar();
+	}
+
+	@Benchmark
+	public String codificar() {
+		return codificadorSenhas.codificar("senha-benchmark");
+	}
+
+	@Benchmark
+	public boolean conferir() {
+		return codificadorSenhas.confere("senha-benchmark", hash);
+	}
+
+}
@@ -0,0 +1,55 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodificadorSenhasTests {
+
+	@Test
+	void filaCabeNasThreadsDoTomcatDeixandoFolga() {
+		// 200 threads do Tomcat - 50 livres - 8 de BCrypt
+		assertEquals(142, CodificadorSenhas.dimensionarFila(0, 8, 200, 50, false));
+		assertEquals(100, CodificadorSenhas.dimensionarFila(100, 8, 200, 50, false));
+	}
+
+	@Test
+	void recusaFilaMaiorQueOTomcatNaInicializacao() {
+		assertThrows(IllegalStateException.class, () -> CodificadorSenhas.dimensionarFila(256, 8, 200, 50, false));
+	}
+
+	@Test
+	void poolNaoPassaDasThreadsDoTomcatEmHostsComMuitosNucleos() {
+		// 200 threads do Tomcat - 50 livres - 1 posição na fila
+		assertEquals(149, CodificadorSenhas.dimensionarPool(192, 200, 50, false));
+		assertEquals(8, CodificadorSenhas.dimensionarPool(8, 200, 50, false));
+		assertEquals(192, CodificadorSenhas.dimensionarPool(192, 200, 50, true));
+		assertEquals(1, CodificadorSenhas.dimensionarFila(0, 149, 200, 50, false));
+	}
+
+	@Test
+	void limiteCalculadoPequenoDemaisUsaFilaMinima() {
+		assertEquals(1, CodificadorSenhas.dimensionarFila(0, 64, 100, 50, false));
+		assertEquals(1, CodificadorSenhas.dimensionarPool(8, 50, 50, false));
+	}
+
+	@Test
+	void threadsVirtuaisNaoLimitamAFila() {
+		assertEquals(256, CodificadorSenhas.dimensionarFila(0, 8, 200, 50, true));
+		assertEquals(1000, CodificadorSenhas.dimensionarFila(1000, 8, 200, 50, true));
+	}
+
+	@Test
+	void soValoresComFormatoDeHashSaoComparadosComOGravado() {
+		CodificadorSenhas codificador = new CodificadorSenhas(4, 0, 0, 200, 50, false, new SimpleMeterRegistry());
+
+		assertTrue(codificador.pareceHash(codificador.codificar("senha123")));
+		assertFalse(codificador.pareceHash("senha123"));
+		assertFalse(codificador.pareceHash(null));
+	}
+
+}
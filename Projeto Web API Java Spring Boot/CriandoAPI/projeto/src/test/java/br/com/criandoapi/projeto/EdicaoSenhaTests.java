@@ -0,0 +1,73 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EdicaoSenhaTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private Validator validator;
+
+	@Test
+	void hashEnviadoPeloClienteECriptografadoComoSenhaComum() {
+		Usuario usuario = usuarioService.criarUsuario(novoUsuario("hash-cliente@email.com"));
+		String hashDoCliente = new BCryptPasswordEncoder(4).encode("outra-senha");
+
+		usuarioService.atualizarUsuario(usuario.getId(), new AtualizacaoUsuario(null, null, hashDoCliente, null, null));
+
+		String gravada = repository.buscarSenhaPorId(usuario.getId()).orElseThrow();
+		assertNotEquals(hashDoCliente, gravada);
+		assertTrue(usuarioService.validarSenha(new DadosLogin("hash-cliente@email.com", hashDoCliente)));
+	}
+
+	@Test
+	void reenviarOHashGravadoNaoCriptografaDeNovo() {
+		Usuario usuario = usuarioService.criarUsuario(novoUsuario("mesmo-hash@email.com"));
+		String gravada = usuario.getSenha();
+
+		usuario.setNome("Nome Alterado");
+		usuarioService.editarUsuario(usuario);
+
+		assertEquals(gravada, repository.buscarSenhaPorId(usuario.getId()).orElseThrow());
+		assertTrue(usuarioService.validarSenha(new DadosLogin("mesmo-hash@email.com", UsuariosTeste.SENHA)));
+	}
+
+	@Test
+	void patchNaoAceitaEmailVazio() {
+		Set<ConstraintViolation<AtualizacaoUsuario>> violacoes =
+				validator.validate(new AtualizacaoUsuario(null, "", null, null, null));
+
+		assertEquals(1, violacoes.size());
+		assertEquals("email", violacoes.iterator().next().getPropertyPath().toString());
+	}
+
+	@Test
+	void patchNaoAceitaNomeEmBranco() {
+		Set<ConstraintViolation<AtualizacaoUsuario>> violacoes =
+				validator.validate(new AtualizacaoUsuario("   ", null, null, null, null));
+
+		assertEquals(1, violacoes.size());
+		assertEquals("nome", violacoes.iterator().next().getPropertyPath().toString());
+	}
+
+}
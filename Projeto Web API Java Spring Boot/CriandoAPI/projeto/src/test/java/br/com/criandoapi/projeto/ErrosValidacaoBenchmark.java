@@ -0,0 +1,83 @@
+package br.com.criandoapi.projeto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de erro de validação do POST /usuarios: montagem do mapa campo -> mensagem em
+ * {@link UsuarioController#handleValidationException}, isolada e junto com a validação do Bean Validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrosValidacaoBenchmark {
+
+	private UsuarioController controller;
+
+	private LocalValidatorFactoryBean validator;
+
+	private MethodParameter parametro;
+
+	private Usuario usuarioInvalido;
+
+	private MethodArgumentNotValidException excecao;
+
+	@Setup
+	public void preparar() throws NoSuchMethodException {
+		// O tratamento de erro não usa as dependências do controlador
+		controller = new UsuarioController(null, null, null, null);
+		validator = new LocalValidatorFactoryBean();
+		validator.afterPropertiesSet();
+		parametro = new MethodParameter(UsuarioController.class.getMethod("criarUsuario", Usuario.class), 0);
+
+		// Todos os campos inválidos: nome curto, e-mail mal formado, senha e telefone em branco
+		usuarioInvalido = new Usuario();
+		usuarioInvalido.setNome("A");
+		usuarioInvalido.setEmail("nao-e-email");
+		usuarioInvalido.setSenha("");
+		usuarioInvalido.setTelefone("");
+		excecao = new MethodArgumentNotValidException(parametro, validar());
+	}
+
+	@TearDown
+	public void encerrar() {
+		validator.close();
+	}
+
+	@Benchmark
+	public Map<String, String> montarMapaDeErros() {
+		return controller.handleValidationException(excecao);
+	}
+
+	@Benchmark
+	public Map<String, String> validarEMontarMapaDeErros() {
+		return controller.handleValidationException(new MethodArgumentNotValidException(parametro, validar()));
+	}
+
+	private BindingResult validar() {
+		BindingResult erros = new BeanPropertyBindingResult(usuarioInvalido, "usuario");
+		validator.validate(usuarioInvalido, erros);
+		return erros;
+	}
+
+}
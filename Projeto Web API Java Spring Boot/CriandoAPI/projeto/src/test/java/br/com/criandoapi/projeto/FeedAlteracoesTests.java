@@ -0,0 +1,92 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FeedAlteracoesTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Test
+	void alteracoesChegamComTipoEVersao() throws Exception {
+		MockHttpServletResponse resposta = assinar(null);
+		aguardar(resposta, "event:inicio");
+
+		Usuario usuario = usuarioService.criarUsuario(novoUsuario("feed.criado@email.com"));
+		usuarioService.excluirUsuario(usuario.getId());
+
+		String conteudo = aguardar(resposta, "event:EXCLUIDO");
+		assertTrue(conteudo.contains("event:CRIADO"));
+		assertTrue(conteudo.contains("\"id\":" + usuario.getId() + ",\"version\":0"));
+		assertTrue(conteudo.contains("feed.criado@email.com"));
+	}
+
+	@Test
+	void reconexaoComLastEventIdRecebeOsEventosPerdidos() throws Exception {
+		String ultimoEventoId = ultimoId(aguardar(assinar(null), "event:inicio"));
+
+		// Alterações feitas enquanto o cliente estava desconectado
+		usuarioService.criarUsuario(novoUsuario("feed.perdido@email.com"));
+
+		String conteudo = aguardar(assinar(ultimoEventoId), "feed.perdido@email.com");
+		assertFalse(conteudo.contains("event:reinicio"));
+	}
+
+	@Test
+	void lastEventIdDeOutraExecucaoPedeReinicio() throws Exception {
+		aguardar(assinar("1-1"), "event:reinicio");
+	}
+
+	private MockHttpServletResponse assinar(String ultimoEventoId) throws Exception {
+		var requisicao = get("/usuarios/changes");
+		if (ultimoEventoId != null) {
+			requisicao.header("Last-Event-ID", ultimoEventoId);
+		}
+		return mockMvc.perform(requisicao)
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+	}
+
+	// Os eventos são escritos por outra thread: espera até o trecho aparecer no corpo da resposta
+	private static String aguardar(MockHttpServletResponse resposta, String trecho) throws Exception {
+		long limite = System.nanoTime() + 5_000_000_000L;
+		String conteudo = resposta.getContentAsString();
+		while (!conteudo.contains(trecho) && System.nanoTime() < limite) {
+			Thread.sleep(20);
+			conteudo = resposta.getContentAsString();
+		}
+		assertTrue(conteudo.contains(trecho), "esperado '" + trecho + "' em: " + conteudo);
+		return conteudo;
+	}
+
+	private static String ultimoId(String conteudo) {
+		Matcher ids = Pattern.compile("^id:(.+)$", Pattern.MULTILINE).matcher(conteudo);
+		String ultimo = null;
+		while (ids.find()) {
+			ultimo = ids.group(1);
+		}
+		return ultimo;
+	}
+
+}
@@ -0,0 +1,72 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FiltroBloomEmailsTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private FiltroBloomEmails filtroEmails;
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+		filtroEmails.reconstruir();
+	}
+
+	@Test
+	void emailNovoNaoPassaPeloFiltroEEmailCriadoPassa() {
+		assertFalse(filtroEmails.possivelmenteCadastrado("novo@email.com"));
+
+		usuarioService.criarUsuario(novoUsuario("novo@email.com"));
+
+		assertTrue(filtroEmails.possivelmenteCadastrado("novo@email.com"));
+		assertTrue(filtroEmails.possivelmenteCadastrado("NOVO@email.com"));
+	}
+
+	@Test
+	void cadastroComEmailRepetidoERecusado() {
+		usuarioService.criarUsuario(novoUsuario("repetido@email.com"));
+
+		assertThrows(EmailJaCadastradoException.class,
+				() -> usuarioService.criarUsuario(novoUsuario("repetido@email.com")));
+	}
+
+	@Test
+	void filtroPreenchidoComOsEmailsDoBanco() {
+		// Gravado direto no repositório, sem evento: só a leitura do banco coloca o e-mail no filtro
+		repository.save(novoUsuario("existente@email.com"));
+		assertFalse(filtroEmails.possivelmenteCadastrado("existente@email.com"));
+
+		filtroEmails.reconstruir();
+
+		assertTrue(filtroEmails.possivelmenteCadastrado("existente@email.com"));
+	}
+
+	@Test
+	void reconstrucaoRemoveEmailsExcluidos() {
+		int id = usuarioService.criarUsuario(novoUsuario("excluido@email.com")).getId();
+		usuarioService.excluirUsuario(id);
+		filtroEmails.reconstruir();
+
+		assertFalse(filtroEmails.possivelmenteCadastrado("excluido@email.com"));
+		usuarioService.criarUsuario(novoUsuario("excluido@email.com"));
+	}
+
+}
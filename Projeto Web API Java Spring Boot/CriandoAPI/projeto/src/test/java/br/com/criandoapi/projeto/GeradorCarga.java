@@ -0,0 +1,434 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gerador de carga em malha aberta para a API de usuários, com correção de omissão coordenada.
+ *
+ * <p>As requisições são disparadas em uma taxa fixa ({@code carga.taxa} por segundo), cada uma em sua própria
+ * thread virtual, sem esperar as anteriores terminarem, como fazem clientes reais independentes. A latência de
+ * cada requisição é medida a partir do instante em que ela <i>deveria</i> ter saído pelo cronograma, e não de
+ * quando saiu de fato: se o servidor (ou o próprio gerador) engasgar, o atraso acumulado aparece nos percentis em
+ * vez de sumir (omissão coordenada). O tempo medido a partir do envio real também é mostrado, para comparação.</p>
+ *
+ * <p>A mistura de operações ({@code carga.mistura}) combina POST /usuarios, PUT /usuarios, POST /usuarios/login,
+ * GET /usuarios e DELETE /usuarios/{id}. Os usuários criados (inclusive os {@code carga.usuarios-iniciais},
+ * cadastrados em lote antes da medição) formam o conjunto usado pelas edições, logins e exclusões; cada usuário
+ * só é usado por uma requisição de cada vez, para que os conflitos de versão não sejam do próprio gerador.</p>
+ *
+ * <p>Sem {@code carga.url}, a própria aplicação ({@link ProjetoApplication}) é iniciada em uma porta livre,
+ * com o banco H2 em memória dos testes, para que a capacidade possa ser reproduzida em qualquer máquina.
+ * Os demais argumentos {@code --chave=valor} são repassados a ela (por exemplo, {@code --spring.profiles.active=memoria}
+ * ou {@code --usuarios.senha.bcrypt-forca=4}).</p>
+ *
+ * <p>Rodar com: mvn -Pcarga test-compile exec:exec [-Dcarga.taxa=200] [-Dcarga.duracao=60s] [-Dcarga.url=http://host:8080]</p>
+ */
+public class GeradorCarga {
+
+	private static final String SENHA = "senha-carga";
+
+	private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+	/**
+	 * Operações da mistura, com o nome usado em {@code carga.mistura}.
+	 */
+	enum Operacao {
+		CRIAR("criar"),
+		EDITAR("editar"),
+		LOGIN("login"),
+		LISTAR("listar"),
+		EXCLUIR("excluir");
+
+		private final String nome;
+
+		Operacao(String nome) {
+			this.nome = nome;
+		}
+	}
+
+	/**
+	 * Usuário criado pelo gerador, com a última versão conhecida.
+	 */
+	private record UsuarioCarga(int id, int version, String email) {
+	}
+
+	/**
+	 * Histogramas e contadores de uma operação.
+	 */
+	private static final class Medicao {
+		// Latência a partir do instante previsto no cronograma (corrigida) e a partir do envio real
+		private final Histogram corrigida = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+		private final Histogram servico = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+		private final LongAdder erros = new LongAdder();
+		private final Map<String, LongAdder> statusErros = new ConcurrentHashMap<>();
+
+		private void registrar(long previsto, long enviado, long fim, int status) {
+			corrigida.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(fim - previsto), corrigida.getHighestTrackableValue()));
+			servico.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(fim - enviado), servico.getHighestTrackableValue()));
+			if (status < 200 || status >= 400) {
+				erros.increment();
+				statusErros.computeIfAbsent(status == 0 ? "falha" : String.valueOf(status), s -> new LongAdder()).increment();
+			}
+		}
+	}
+
+	private final HttpClient cliente;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String url;
+	private final String execucao = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong sequencia = new AtomicLong();
+
+	// Usuários disponíveis para edição, login e exclusão (retirados enquanto estão em uso)
+	private final List<UsuarioCarga> disponiveis = new ArrayList<>();
+	private final ReentrantLock travaDisponiveis = new ReentrantLock();
+	private final AtomicInteger maiorId = new AtomicInteger(1);
+
+	private final Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+	private final Map<Operacao, Medicao> aquecimento = new EnumMap<>(Operacao.class);
+
+	private GeradorCarga(String url, HttpClient cliente) {
+		this.url = url;
+		this.cliente = cliente;
+		for (Operacao operacao : Operacao.values()) {
+			medicoes.put(operacao, new Medicao());
+			aquecimento.put(operacao, new Medicao());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new HashMap<>();
+		List<String> argumentosAplicacao = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--carga.") && arg.contains("=")) {
+				opcoes.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+			} else if (!arg.isBlank()) {
+				argumentosAplicacao.add(arg);
+			}
+		}
+		double taxa = Double.parseDouble(opcoes.getOrDefault("carga.taxa", "100"));
+		Duration duracao = duracao(opcoes.getOrDefault("carga.duracao", "30s"));
+		Duration tempoAquecimento = duracao(opcoes.getOrDefault("carga.aquecimento", "10s"));
+		Map<Operacao, Integer> mistura = mistura(opcoes.getOrDefault("carga.mistura",
+				"criar:10,editar:10,login:30,listar:45,excluir:5"));
+		int usuariosIniciais = Integer.parseInt(opcoes.getOrDefault("carga.usuarios-iniciais", "500"));
+		String resultado = opcoes.getOrDefault("carga.resultado", "target/carga-resultado.txt");
+		String url = opcoes.getOrDefault("carga.url", "");
+
+		ConfigurableApplicationContext aplicacao = null;
+		if (url.isBlank()) {
+			argumentosAplicacao.add("--server.port=0");
+			aplicacao = new SpringApplicationBuilder(ProjetoApplication.class).profiles("test")
+					.run(argumentosAplicacao.toArray(String[]::new));
+			url = "http://localhost:" + ((WebServerApplicationContext) aplicacao).getWebServer().getPort();
+		}
+
+		try (HttpClient cliente = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build()) {
+			GeradorCarga gerador = new GeradorCarga(url, cliente);
+			gerador.cadastrarIniciais(usuariosIniciais);
+			System.out.printf("Carga em %s: %.0f req/s por %s (aquecimento de %s), mistura %s%n",
+					url, taxa, duracao, tempoAquecimento, mistura);
+			long disparadas = gerador.executar(taxa, tempoAquecimento, duracao, mistura);
+
+			try (PrintStream saida = new PrintStream(Files.newOutputStream(criarDiretorio(Path.of(resultado))))) {
+				for (PrintStream destino : new PrintStream[]{System.out, saida}) {
+					gerador.relatar(destino, taxa, duracao, disparadas);
+				}
+			}
+			System.out.println("Resultado gravado em " + resultado);
+		} finally {
+			if (aplicacao != null) {
+				aplicacao.close();
+			}
+		}
+	}
+
+	// Cadastra em lote os usuários usados pelas primeiras edições, logins e exclusões
+	private void cadastrarIniciais(int quantidade) throws IOException, InterruptedException {
+		StringBuilder corpo = new StringBuilder();
+		List<String> emails = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			String email = novoEmail();
+			emails.add(email);
+			corpo.append(usuarioJson(0, 0, "Usuario Carga " + i, email)).append('\n');
+		}
+		HttpResponse<String> resposta = cliente.send(HttpRequest.newBuilder(URI.create(url + "/usuarios/batch"))
+				.header("Content-Type", "application/x-ndjson")
+				.POST(HttpRequest.BodyPublishers.ofString(corpo.toString()))
+				.timeout(Duration.ofMinutes(5))
+				.build(), HttpResponse.BodyHandlers.ofString());
+		if (resposta.statusCode() >= 300) {
+			throw new IllegalStateException("Falha no cadastro inicial: HTTP " + resposta.statusCode() + " " + resposta.body());
+		}
+		for (JsonNode linha : objectMapper.readTree(resposta.body())) {
+			if (linha.hasNonNull("id")) {
+				devolver(new UsuarioCarga(linha.get("id").asInt(), 0, emails.get(linha.get("indice").asInt())));
+			}
+		}
+	}
+
+	// Dispara as requisições no cronograma fixo e espera as que ainda estiverem em andamento
+	private long executar(double taxa, Duration tempoAquecimento, Duration duracao, Map<Operacao, Integer> mistura)
+			throws InterruptedException {
+		long intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / taxa);
+		long inicio = System.nanoTime();
+		long inicioMedicao = inicio + tempoAquecimento.toNanos();
+		long fim = inicioMedicao + duracao.toNanos();
+		int pesoTotal = mistura.values().stream().mapToInt(Integer::intValue).sum();
+
+		long disparadas = 0;
+		ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+		for (long i = 0; ; i++) {
+			long previsto = inicio + i * intervalo;
+			if (previsto >= fim) {
+				break;
+			}
+			// Se o gerador atrasar, as requisições atrasadas saem imediatamente, mas continuam medidas a partir do previsto
+			long espera = previsto - System.nanoTime();
+			if (espera > 0) {
+				LockSupport.parkNanos(espera);
+			}
+			Operacao operacao = sortear(mistura, pesoTotal);
+			boolean medindo = previsto >= inicioMedicao;
+			if (medindo) {
+				disparadas++;
+			}
+			threads.execute(() -> executar(operacao, previsto, medindo));
+		}
+		threads.shutdown();
+		if (!threads.awaitTermination(TEMPO_LIMITE.toSeconds() + 5, TimeUnit.SECONDS)) {
+			System.out.println("Algumas requisições não terminaram dentro do tempo limite");
+		}
+		return disparadas;
+	}
+
+	private void executar(Operacao operacao, long previsto, boolean medindo) {
+		// Sem usuários disponíveis, edições, logins e exclusões viram cadastros
+		UsuarioCarga usuario = operacao == Operacao.CRIAR || operacao == Operacao.LISTAR ? null : retirar();
+		Operacao efetiva = usuario == null && operacao != Operacao.LISTAR ? Operacao.CRIAR : operacao;
+		Medicao medicao = (medindo ? medicoes : aquecimento).get(efetiva);
+
+		HttpRequest requisicao = switch (efetiva) {
+			case CRIAR -> json("/usuarios").POST(corpo(usuarioJson(0, 0, "Usuario Carga", novoEmail()))).build();
+			case EDITAR -> json("/usuarios").PUT(corpo(usuarioJson(usuario.id(), usuario.version(),
+					"Usuario Editado " + ThreadLocalRandom.current().nextInt(1000), usuario.email()))).build();
+			case LOGIN -> json("/usuarios/login").POST(corpo(
+					"{\"email\":\"" + usuario.email() + "\",\"senha\":\"" + SENHA + "\"}")).build();
+			case LISTAR -> requisicao("/usuarios?apos=" + ThreadLocalRandom.current().nextInt(maiorId.get())
+					+ "&tamanho=20").GET().build();
+			case EXCLUIR -> requisicao("/usuarios/" + usuario.id()).DELETE().build();
+		};
+
+		long enviado = System.nanoTime();
+		int status = 0;
+		String corpoResposta = null;
+		try {
+			HttpResponse<String> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+			status = resposta.statusCode();
+			corpoResposta = resposta.body();
+		} catch (IOException e) {
+			// Falha de conexão ou tempo esgotado: registrada com status 0
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		medicao.registrar(previsto, enviado, System.nanoTime(), status);
+
+		atualizarUsuarios(efetiva, usuario, status, corpoResposta);
+	}
+
+	// Devolve ao conjunto o usuário usado (ou o criado), com a versão devolvida pela API
+	private void atualizarUsuarios(Operacao operacao, UsuarioCarga usuario, int status, String corpoResposta) {
+		boolean sucesso = status >= 200 && status < 300;
+		try {
+			switch (operacao) {
+				case CRIAR, EDITAR -> {
+					if (sucesso) {
+						JsonNode criado = objectMapper.readTree(corpoResposta);
+						devolver(new UsuarioCarga(criado.get("id").asInt(), criado.get("version").asInt(),
+								criado.get("email").asText()));
+					} else if (usuario != null && status != 404) {
+						devolver(usuario);
+					}
+				}
+				case LOGIN -> devolver(usuario);
+				case EXCLUIR -> {
+					if (!sucesso && status != 404) {
+						devolver(usuario);
+					}
+				}
+				case LISTAR -> {
+				}
+			}
+		} catch (IOException e) {
+			if (usuario != null) {
+				devolver(usuario);
+			}
+		}
+	}
+
+	private void relatar(PrintStream saida, double taxa, Duration duracao, long disparadas) {
+		Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+		long erros = 0;
+		saida.printf("%nTaxa alvo: %.0f req/s, medidas %d requisições em %s (%.1f req/s)%n",
+				taxa, disparadas, duracao, disparadas / (double) duracao.toSeconds());
+		saida.println("Latência corrigida (a partir do instante previsto), em ms; entre parênteses, o p99 medido a partir do envio");
+		saida.printf("%-8s %9s %8s %9s %9s %9s %9s %9s %13s%n",
+				"operação", "requisições", "erros", "p50", "p90", "p99", "p99.9", "máx", "(p99 envio)");
+		for (Operacao operacao : Operacao.values()) {
+			Medicao medicao = medicoes.get(operacao);
+			Histogram h = medicao.corrigida;
+			if (h.getTotalCount() == 0) {
+				continue;
+			}
+			total.add(h);
+			erros += medicao.erros.sum();
+			saida.printf("%-8s %11d %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f)%s%n",
+					operacao.nome, h.getTotalCount(), 100.0 * medicao.erros.sum() / h.getTotalCount(),
+					ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+					ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()),
+					ms(medicao.servico.getValueAtPercentile(99)),
+					medicao.statusErros.isEmpty() ? "" : "  " + medicao.statusErros);
+		}
+		if (total.getTotalCount() > 0) {
+			saida.printf("%-8s %11d %7.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%n", "total", total.getTotalCount(),
+					100.0 * erros / total.getTotalCount(), ms(total.getValueAtPercentile(50)),
+					ms(total.getValueAtPercentile(90)), ms(total.getValueAtPercentile(99)),
+					ms(total.getValueAtPercentile(99.9)), ms(total.getMaxValue()));
+			saida.println("\nDistribuição completa (total, corrigida, em ms):");
+			total.outputPercentileDistribution(saida, 5, 1000.0);
+		}
+	}
+
+	private HttpRequest.Builder requisicao(String caminho) {
+		return HttpRequest.newBuilder(URI.create(url + caminho)).timeout(TEMPO_LIMITE);
+	}
+
+	private HttpRequest.Builder json(String caminho) {
+		return requisicao(caminho).header("Content-Type", "application/json");
+	}
+
+	private static HttpRequest.BodyPublisher corpo(String json) {
+		return HttpRequest.BodyPublishers.ofString(json);
+	}
+
+	private static String usuarioJson(int id, int version, String nome, String email) {
+		return "{\"id\":" + id + ",\"version\":" + version + ",\"nome\":\"" + nome + "\",\"email\":\"" + email
+				+ "\",\"senha\":\"" + SENHA + "\",\"telefone\":\"(11) 90000-0000\"}";
+	}
+
+	private String novoEmail() {
+		return "carga-" + execucao + "-" + sequencia.incrementAndGet() + "@email.com";
+	}
+
+	// Retira um usuário aleatório do conjunto (troca com o último para remover em tempo constante)
+	private UsuarioCarga retirar() {
+		travaDisponiveis.lock();
+		try {
+			if (disponiveis.isEmpty()) {
+				return null;
+			}
+			int posicao = ThreadLocalRandom.current().nextInt(disponiveis.size());
+			UsuarioCarga usuario = disponiveis.get(posicao);
+			disponiveis.set(posicao, disponiveis.getLast());
+			disponiveis.removeLast();
+			return usuario;
+		} finally {
+			travaDisponiveis.unlock();
+		}
+	}
+
+	private void devolver(UsuarioCarga usuario) {
+		maiorId.accumulateAndGet(usuario.id(), Math::max);
+		travaDisponiveis.lock();
+		try {
+			disponiveis.add(usuario);
+		} finally {
+			travaDisponiveis.unlock();
+		}
+	}
+
+	private static Operacao sortear(Map<Operacao, Integer> mistura, int pesoTotal) {
+		int sorteio = ThreadLocalRandom.current().nextInt(pesoTotal);
+		for (Map.Entry<Operacao, Integer> entrada : mistura.entrySet()) {
+			sorteio -= entrada.getValue();
+			if (sorteio < 0) {
+				return entrada.getKey();
+			}
+		}
+		throw new IllegalStateException("Mistura sem operações");
+	}
+
+	// Formato "operacao:peso,operacao:peso", por exemplo "criar:10,login:90"
+	private static Map<Operacao, Integer> mistura(String texto) {
+		Map<Operacao, Integer> mistura = new EnumMap<>(Operacao.class);
+		for (String parte : texto.split(",")) {
+			String[] nomePeso = parte.strip().split(":");
+			Operacao operacao = null;
+			for (Operacao candidata : Operacao.values()) {
+				if (candidata.nome.equals(nomePeso[0].strip())) {
+					operacao = candidata;
+				}
+			}
+			if (operacao == null) {
+				throw new IllegalArgumentException("Operação desconhecida na mistura: " + nomePeso[0]);
+			}
+			mistura.put(operacao, Integer.parseInt(nomePeso[1].strip()));
+		}
+		return mistura;
+	}
+
+	// Aceita "30s", "2m" ou um número de segundos
+	private static Duration duracao(String texto) {
+		String valor = texto.strip().toLowerCase();
+		if (valor.endsWith("m")) {
+			return Duration.ofMinutes(Long.parseLong(valor.substring(0, valor.length() - 1)));
+		}
+		return Duration.ofSeconds(Long.parseLong(valor.endsWith("s") ? valor.substring(0, valor.length() - 1) : valor));
+	}
+
+	private static Path criarDiretorio(Path arquivo) throws IOException {
+		Path diretorio = arquivo.toAbsolutePath().getParent();
+		if (diretorio != null) {
+			Files.createDirectories(diretorio);
+		}
+		return arquivo;
+	}
+
+	private static double ms(long micros) {
+		return micros / 1000.0;
+	}
+
+}
@@ -0,0 +1,162 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"usuarios.cadastro.agrupado.ativo=true",
+		"usuarios.cadastro.agrupado.janela=20ms"
+})
+@ActiveProfiles("test")
+class GravacaoAgrupadaTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private GravacaoAgrupada gravacaoAgrupada;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private FiltroBloomEmails filtroEmails;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@Test
+	void cadastrosSimultaneosCompartilhamCommits() throws Exception {
+		int quantidade = 50;
+		long commitsAntes = commits();
+
+		List<Future<Usuario>> criados = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < quantidade; i++) {
+				Usuario usuario = novoUsuario("grupo" + i + "@email.com");
+				criados.add(executor.submit(() -> usuarioService.criarUsuario(usuario)));
+			}
+		}
+
+		for (Future<Usuario> criado : criados) {
+			assertTrue(criado.get().getId() > 0);
+		}
+		assertEquals(quantidade, repository.count());
+		assertTrue(commits() - commitsAntes < quantidade, "commits: " + (commits() - commitsAntes));
+	}
+
+	@Test
+	void conflitoNoGrupoSoFalhaParaOPedidoRepetido() throws Exception {
+		Future<Usuario> primeiro;
+		Future<Usuario> repetido;
+		Future<Usuario> outro;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			primeiro = executor.submit(() -> gravacaoAgrupada.inserir(novoUsuario("mesmo@email.com")));
+			repetido = executor.submit(() -> gravacaoAgrupada.inserir(novoUsuario("mesmo@email.com")));
+			outro = executor.submit(() -> gravacaoAgrupada.inserir(novoUsuario("outro@email.com")));
+		}
+
+		List<Throwable> falhas = new ArrayList<>();
+		for (Future<Usuario> resultado : List.of(primeiro, repetido)) {
+			try {
+				resultado.get();
+			} catch (Exception e) {
+				falhas.add(e.getCause());
+			}
+		}
+		assertEquals(1, falhas.size());
+		assertInstanceOf(DataIntegrityViolationException.class, falhas.getFirst());
+		assertTrue(outro.get().getId() > 0);
+		assertEquals(2, repository.count());
+	}
+
+	@Test
+	void gravadorPublicaOEventoDeCadaUsuarioGravado() {
+		// Sem passar pelo UsuarioService: quem publica o evento é a thread gravadora, antes de liberar a requisição
+		gravacaoAgrupada.inserir(novoUsuario("evento.agrupado@email.com"));
+
+		assertTrue(filtroEmails.possivelmenteCadastrado("evento.agrupado@email.com"));
+	}
+
+	@Test
+	void esperaPeloCommitTemLimite() {
+		// Sem a thread gravadora (ativo=false), nenhum pedido é gravado: o tempo de espera sempre se esgota
+		GravacaoAgrupada semGravador = new GravacaoAgrupada(repository, null, evento -> { }, false, Duration.ofMillis(5),
+				100, 10, Duration.ofMillis(50), new SimpleMeterRegistry());
+
+		assertThrows(SobrecargaException.class, () -> semGravador.inserir(novoUsuario("lento@email.com")));
+		// O pedido abandonado saiu da fila: os próximos continuam cabendo
+		for (int i = 0; i < 10; i++) {
+			assertThrows(SobrecargaException.class, () -> semGravador.inserir(novoUsuario("lento@email.com")));
+		}
+		assertEquals(0, repository.count());
+	}
+
+	/**
+	 * Compara commits/s e usuários/s da gravação individual (um commit por cadastro) com a gravação agrupada,
+	 * com 64 cadastros simultâneos. As senhas já vêm criptografadas, para medir só a gravação.
+	 * Rodar com: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=GravacaoAgrupadaTests
+	 */
+	@Test
+	@Tag("benchmark")
+	void comparaCommitsIndividuaisComAgrupados() throws Exception {
+		int quantidade = 5000;
+
+		double segundosIndividual = medir(quantidade, "individual", repository::save);
+		long commitsAntes = commits();
+		double segundosAgrupado = medir(quantidade, "agrupado", gravacaoAgrupada::inserir);
+		long commitsAgrupados = commits() - commitsAntes;
+
+		System.out.printf("Individual: %d commits em %.2fs (%.0f commits/s, %.0f usuários/s)%n",
+				quantidade, segundosIndividual, quantidade / segundosIndividual, quantidade / segundosIndividual);
+		System.out.printf("Agrupado:   %d commits em %.2fs (%.0f commits/s, %.0f usuários/s)%n",
+				commitsAgrupados, segundosAgrupado, commitsAgrupados / segundosAgrupado, quantidade / segundosAgrupado);
+	}
+
+	private double medir(int quantidade, String prefixo, Consumer<Usuario> gravar) throws Exception {
+		List<Future<?>> tarefas = new ArrayList<>();
+		long inicio = System.nanoTime();
+		try (ExecutorService executor = Executors.newFixedThreadPool(64, Thread.ofVirtual().factory())) {
+			for (int i = 0; i < quantidade; i++) {
+				Usuario usuario = novoUsuario(prefixo + i + "@email.com");
+				usuario.setSenha(UsuariosTeste.HASH);
+				tarefas.add(executor.submit(() -> gravar.accept(usuario)));
+			}
+		}
+		for (Future<?> tarefa : tarefas) {
+			tarefa.get();
+		}
+		return (System.nanoTime() - inicio) / 1e9;
+	}
+
+	private long commits() {
+		return registry.get("usuarios.cadastro.agrupado.tamanho").summary().count();
+	}
+
+}
@@ -0,0 +1,125 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IndiceBuscaUsuariosTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private IndiceBuscaUsuarios indiceBusca;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+		indiceBusca.reconstruir();
+	}
+
+	@Test
+	void buscaPorTrechoIgnorandoMaiusculasEAcentosEmOrdemDeRelevancia() {
+		Usuario contem = usuarioService.criarUsuario(novoUsuario("Ana Rosamaria", "ana@email.com"));
+		Usuario palavra = usuarioService.criarUsuario(novoUsuario("José Maria Souza", "jose@email.com"));
+		Usuario comeca = usuarioService.criarUsuario(novoUsuario("Maria Silva", "msilva@email.com"));
+		usuarioService.criarUsuario(novoUsuario("Pedro Alves", "pedro@email.com"));
+
+		ResultadoBusca resultado = indiceBusca.buscar("MARIA", 0, 20);
+
+		assertEquals(3, resultado.total());
+		assertEquals(List.of(comeca.getId(), palavra.getId(), contem.getId()),
+				resultado.usuarios().stream().map(UsuarioResumo::id).toList());
+		assertEquals(1, indiceBusca.buscar("jose", 0, 20).total(), "sem acento encontra o nome acentuado");
+	}
+
+	@Test
+	void termoCurtoBuscaPeloInicioDasPalavras() {
+		usuarioService.criarUsuario(novoUsuario("Carlos Oliveira", "carlos@email.com"));
+		usuarioService.criarUsuario(novoUsuario("Marcos Lima", "marcos@email.com"));
+
+		assertEquals(1, indiceBusca.buscar("ol", 0, 20).total());
+		assertEquals(2, indiceBusca.buscar("e", 0, 20).total(), "o 'email' dos dois e-mails começa com e");
+	}
+
+	@Test
+	void indiceAcompanhaEdicaoEExclusao() {
+		Usuario usuario = usuarioService.criarUsuario(novoUsuario("Fernanda Costa", "fernanda@email.com"));
+
+		usuario.setNome("Fernanda Ribeiro");
+		usuarioService.editarUsuario(usuario);
+		assertEquals(0, indiceBusca.buscar("costa", 0, 20).total());
+		assertEquals(1, indiceBusca.buscar("ribeiro", 0, 20).total());
+
+		usuarioService.excluirUsuario(usuario.getId());
+		assertEquals(0, indiceBusca.buscar("fernanda", 0, 20).total());
+	}
+
+	@Test
+	void eventoAtrasadoNaoDesfazAlteracaoMaisNova() {
+		Usuario usuario = usuarioService.criarUsuario(novoUsuario("Helena Prado", "helena@email.com"));
+		UsuarioResumo original = UsuarioResumo.de(usuario);
+
+		usuario.setNome("Helena Moraes");
+		usuarioService.editarUsuario(usuario);
+		indiceBusca.aoAlterar(UsuarioAlterado.atualizado(original));
+		assertEquals(0, indiceBusca.buscar("prado", 0, 20).total());
+		assertEquals(1, indiceBusca.buscar("moraes", 0, 20).total());
+
+		usuarioService.excluirUsuario(usuario.getId());
+		indiceBusca.aoAlterar(UsuarioAlterado.criado(original));
+		assertEquals(0, indiceBusca.buscar("helena", 0, 20).total());
+	}
+
+	@Test
+	void paginaNegativaViraAPrimeira() throws Exception {
+		usuarioService.criarUsuario(novoUsuario("Igor Santos", "igor@email.com"));
+
+		mockMvc.perform(get("/usuarios/search").param("q", "igor").param("pagina", "-3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.pagina").value(0))
+				.andExpect(jsonPath("$.usuarios.length()").value(1));
+	}
+
+	@Test
+	void reconstrucaoLeOsUsuariosDoBancoEPaginaOsResultados() throws Exception {
+		for (int i = 0; i < 25; i++) {
+			repository.save(novoUsuario("Cliente " + i, "cliente" + i + "@email.com"));
+		}
+		indiceBusca.reconstruir();
+
+		mockMvc.perform(get("/usuarios/search").param("q", "cliente").param("pagina", "1").param("tamanho", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.total").value(25))
+				.andExpect(jsonPath("$.usuarios.length()").value(10))
+				.andExpect(jsonPath("$.completo").value(true));
+		assertTrue(registry.get("usuarios.busca.memoria").gauge().value() > 0);
+	}
+
+}
@@ -0,0 +1,119 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mede o tempo até a primeira resposta e a memória residente (RSS) da aplicação empacotada,
+ * sem otimizações e com o arquivo CDS e as classes do Spring AOT do perfil Maven "inicio-rapido".
+ *
+ * <p>Cada variante sobe um processo novo, mede do início do processo até a primeira resposta HTTP de
+ * {@code inicio.url} (padrão /usuarios?tamanho=1, que precisa do MySQL como a aplicação normal) e lê o RSS
+ * do processo nesse momento. O resultado é a mediana de {@value #EXECUCOES} execuções.</p>
+ *
+ * <p>Rodar com: mvn -Pinicio-rapido package -DskipTests
+ * e depois: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=InicioRapidoTests</p>
+ */
+@Tag("benchmark")
+class InicioRapidoTests {
+
+	private static final int EXECUCOES = 5;
+	private static final int PORTA = 18080;
+
+	private record Medicao(long milissegundos, long rssKb) {
+	}
+
+	@Test
+	void comparaInicioComESemAotECds() throws Exception {
+		Path alvo = Path.of("target");
+		String nomeJar = "projeto-0.0.1-SNAPSHOT.jar";
+		Path jar = alvo.resolve(nomeJar);
+		Path extraido = alvo.resolve("app").resolve(nomeJar);
+		Path arquivoCds = alvo.resolve("app").resolve("app.jsa");
+		assertTrue(Files.exists(extraido) && Files.exists(arquivoCds), "rode antes: mvn -Pinicio-rapido package -DskipTests");
+
+		String url = System.getProperty("inicio.url", "/usuarios?tamanho=1");
+		System.out.printf("%-12s %12s %10s%n", "variante", "1ª resposta", "RSS (MB)");
+		imprimir("padrão", medir(url, "-jar", jar.toString()));
+		imprimir("cds", medir(url, "-XX:SharedArchiveFile=" + arquivoCds, "-jar", extraido.toString()));
+		imprimir("aot + cds", medir(url, "-XX:SharedArchiveFile=" + arquivoCds, "-Dspring.aot.enabled=true",
+				"-jar", extraido.toString()));
+	}
+
+	private static void imprimir(String variante, Medicao medicao) {
+		System.out.printf("%-12s %10d ms %10d%n", variante, medicao.milissegundos(), medicao.rssKb() / 1024);
+	}
+
+	// Executa a variante várias vezes e devolve a mediana do tempo (com o RSS da mesma execução)
+	private Medicao medir(String url, String... argumentosJava) throws Exception {
+		List<Medicao> medicoes = new ArrayList<>();
+		for (int i = 0; i < EXECUCOES; i++) {
+			medicoes.add(executar(url, argumentosJava));
+		}
+		medicoes.sort((a, b) -> Long.compare(a.milissegundos(), b.milissegundos()));
+		return medicoes.get(EXECUCOES / 2);
+	}
+
+	private Medicao executar(String url, String... argumentosJava) throws Exception {
+		List<String> comando = new ArrayList<>();
+		comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		comando.addAll(Arrays.asList(argumentosJava));
+		comando.add("--server.port=" + PORTA);
+
+		HttpClient cliente = HttpClient.newHttpClient();
+		HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + PORTA + url)).GET().build();
+
+		long inicio = System.nanoTime();
+		Process processo = new ProcessBuilder(comando).redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		try {
+			while (true) {
+				assertTrue(processo.isAlive(), "a aplicação terminou antes de responder");
+				try {
+					cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+					break;
+				} catch (ConnectException e) {
+					Thread.sleep(5);
+				}
+			}
+			long milissegundos = (System.nanoTime() - inicio) / 1_000_000;
+			return new Medicao(milissegundos, rssKb(processo.pid()));
+		} finally {
+			processo.destroy();
+			if (!processo.waitFor(10, TimeUnit.SECONDS)) {
+				processo.destroyForcibly().waitFor();
+			}
+		}
+	}
+
+	// Lê o VmRSS do processo (Linux); devolve -1 em outros sistemas
+	private static long rssKb(long pid) throws IOException {
+		File status = new File("/proc/" + pid + "/status");
+		if (!status.exists()) {
+			return -1;
+		}
+		for (String linha : Files.readAllLines(status.toPath())) {
+			if (linha.startsWith("VmRSS:")) {
+				return Long.parseLong(linha.replaceAll("\\D", ""));
+			}
+		}
+		return -1;
+	}
+
+}
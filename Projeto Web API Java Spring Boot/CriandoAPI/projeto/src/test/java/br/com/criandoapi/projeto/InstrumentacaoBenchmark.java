@@ -0,0 +1,71 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo, por operação, da instrumentação ligada em produção: um timer do Prometheus com histograma
+ * de buckets (como o de cada endpoint, do BCrypt e das chamadas ao IUsuario) comparado a um timer simples
+ * e a nenhuma medição. Roda com 4 threads para incluir a disputa entre requisições simultâneas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class InstrumentacaoBenchmark {
+
+	private Timer timerSimples;
+
+	private Timer timerComHistograma;
+
+	@Setup
+	public void preparar() {
+		PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		timerSimples = Timer.builder("benchmark.simples").register(registry);
+		timerComHistograma = Timer.builder("benchmark.histograma")
+				.publishPercentileHistogram()
+				.minimumExpectedValue(Duration.ofNanos(100_000))
+				.maximumExpectedValue(Duration.ofSeconds(10))
+				.register(registry);
+	}
+
+	// Trabalho mínimo que representa a operação medida
+	private static void operacao() {
+		Blackhole.consumeCPU(64);
+	}
+
+	@Benchmark
+	public void semInstrumentacao() {
+		operacao();
+	}
+
+	@Benchmark
+	public void timerSimples() {
+		timerSimples.record(InstrumentacaoBenchmark::operacao);
+	}
+
+	@Benchmark
+	public void timerComHistograma() {
+		timerComHistograma.record(InstrumentacaoBenchmark::operacao);
+	}
+
+}
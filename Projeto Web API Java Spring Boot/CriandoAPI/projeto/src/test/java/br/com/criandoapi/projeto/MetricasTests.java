@@ -0,0 +1,45 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void loginExpoeHistogramasDoEndpointDoBcryptDoRepositorioEDoPool() throws Exception {
+		mockMvc.perform(post("/usuarios/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"email\": \"metricas@email.com\", \"senha\": \"senha123\"}"))
+				.andExpect(status().isUnauthorized());
+
+		String metricas = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(metricas.contains("http_server_requests_seconds_bucket{")
+				&& metricas.contains("uri=\"/usuarios/login\""), "histograma por endpoint");
+		assertTrue(metricas.contains("usuarios_senha_hash_seconds_bucket{"), "histograma do BCrypt");
+		assertTrue(metricas.contains("spring_data_repository_invocations_seconds_bucket{")
+				&& metricas.contains("method=\"buscarCredencialPorEmail\""), "histograma das chamadas ao IUsuario");
+		assertTrue(metricas.contains("hikaricp_connections_acquire_seconds_bucket{"), "histograma da espera por conexão");
+	}
+
+}
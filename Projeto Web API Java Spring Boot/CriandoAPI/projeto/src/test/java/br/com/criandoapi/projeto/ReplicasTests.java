@@ -0,0 +1,136 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Separação de leituras e escritas com dois bancos H2 em memória: o principal (spring.datasource.url)
+ * e uma réplica independente. Como não há replicação entre eles, um registro que só existe em um dos
+ * bancos mostra de onde cada leitura veio.
+ */
+@SpringBootTest(properties = {
+		"usuarios.replicas.fontes[0].url=" + ReplicasTests.URL_REPLICA,
+		"usuarios.replicas.fontes[0].username=sa",
+		"usuarios.replicas.fontes[0].password=",
+		"usuarios.replicas.consulta-atraso=select atraso from atraso_replica",
+		"usuarios.replicas.intervalo-verificacao=1h",
+		"usuarios.replicas.atraso-maximo=5s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicasTests {
+
+	static final String URL_REPLICA = "jdbc:h2:mem:replica_usuarios;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private CodificadorSenhas codificadorSenhas;
+
+	@Autowired
+	private MonitorReplicas monitorReplicas;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+	@BeforeEach
+	void prepararBancos() {
+		repository.deleteAllInBatch();
+
+		replica.execute("create table if not exists usuarios (id int auto_increment primary key, version int not null, "
+				+ "nome varchar(200) not null, email varchar(50) not null unique, senha text not null, telefone varchar(15) not null)");
+		replica.execute("create table if not exists atraso_replica (atraso int)");
+		replica.update("delete from usuarios");
+		replica.update("delete from atraso_replica");
+		replica.update("insert into atraso_replica values (0)");
+		monitorReplicas.verificar();
+	}
+
+	@Test
+	void listagemELoginLeemDaReplica() {
+		inserirNaReplica("replica@email.com", codificadorSenhas.codificar("senha123"));
+
+		assertEquals(1, usuarioService.listarUsuario(0, 20).usuarios().size());
+		assertTrue(usuarioService.validarSenha(new DadosLogin("replica@email.com", "senha123")));
+	}
+
+	@Test
+	void replicaAtrasadaOuForaDoArDeixaDeReceberLeituras() {
+		inserirNaReplica("replica@email.com", "hash");
+
+		replica.update("update atraso_replica set atraso = 60");
+		monitorReplicas.verificar();
+		assertTrue(usuarioService.listarUsuario(0, 20).usuarios().isEmpty());
+
+		replica.update("update atraso_replica set atraso = 0");
+		monitorReplicas.verificar();
+		assertEquals(1, usuarioService.listarUsuario(0, 20).usuarios().size());
+
+		replica.execute("drop table atraso_replica");
+		monitorReplicas.verificar();
+		assertTrue(usuarioService.listarUsuario(0, 20).usuarios().isEmpty());
+	}
+
+	@Test
+	void clienteLeAPropriaAlteracaoDentroDaJanela() throws Exception {
+		String escrita = mockMvc.perform(post("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"nome\": \"Ana Souza\", \"email\": \"ana@email.com\", "
+								+ "\"senha\": \"senha123\", \"telefone\": \"(11) 11111-1111\"}"))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getHeader(LeituraAposEscrita.CABECALHO);
+		assertNotNull(escrita);
+
+		// O mesmo cliente, devolvendo o cabeçalho, lê do banco principal, onde o usuário acabou de ser criado
+		String propria = mockMvc.perform(get("/usuarios").header(LeituraAposEscrita.CABECALHO, escrita))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(propria.contains("ana@email.com"));
+
+		// Também na exportação, cujo corpo é escrito em outra thread
+		MvcResult exportacao = mockMvc.perform(get("/usuarios/export").header(LeituraAposEscrita.CABECALHO, escrita))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String exportados = mockMvc.perform(asyncDispatch(exportacao))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(exportados.contains("ana@email.com"));
+
+		// Os demais clientes continuam lendo da réplica, que ainda não recebeu o usuário
+		String outros = mockMvc.perform(get("/usuarios"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertFalse(outros.contains("ana@email.com"));
+	}
+
+	private void inserirNaReplica(String email, String senha) {
+		replica.update("insert into usuarios (version, nome, email, senha, telefone) values (0, ?, ?, ?, ?)",
+				"Somente Replica", email, senha, "(11) 90000-0000");
+	}
+
+}
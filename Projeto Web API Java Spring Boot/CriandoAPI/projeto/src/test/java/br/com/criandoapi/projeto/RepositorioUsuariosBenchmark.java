@@ -0,0 +1,94 @@
+package br.com.criandoapi.projeto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chamadas mais frequentes do {@link IUsuario} no repositório JPA (Hibernate sobre o H2 em memória dos testes)
+ * e no {@link RepositorioUsuariosMemoria} (perfil {@code memoria}), com a mesma massa de usuários e 4 threads.
+ *
+ * <p>O H2 roda no próprio processo, então a diferença medida é só o custo do JPA/JDBC; contra o MySQL,
+ * a rede e o servidor do banco ainda se somam ao repositório JPA.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RepositorioUsuariosBenchmark {
+
+	private static final int USUARIOS = 10_000;
+
+	@Param({"jpa", "memoria"})
+	private String repositorio;
+
+	private ConfigurableApplicationContext contexto;
+
+	private IUsuario usuarios;
+
+	@Setup
+	public void preparar() {
+		SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(ProjetoApplication.class)
+				.web(WebApplicationType.NONE);
+		aplicacao.profiles("memoria".equals(repositorio) ? "memoria" : "test");
+		contexto = aplicacao.run();
+		usuarios = contexto.getBean(IUsuario.class);
+
+		List<Usuario> lote = new ArrayList<>(USUARIOS);
+		for (int i = 1; i <= USUARIOS; i++) {
+			lote.add(UsuariosTeste.novoUsuarioComHash("Usuario Benchmark " + i, "usuario" + i + "@email.com"));
+		}
+		contexto.getBean(TransactionTemplate.class).executeWithoutResult(status -> usuarios.inserirEmLote(lote));
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public Optional<UsuarioResumo> buscarResumoPorId() {
+		return usuarios.buscarResumoPorId(ThreadLocalRandom.current().nextInt(1, USUARIOS + 1));
+	}
+
+	@Benchmark
+	public Optional<CredencialUsuario> buscarCredencialPorEmail() {
+		return usuarios.buscarCredencialPorEmail("usuario" + ThreadLocalRandom.current().nextInt(1, USUARIOS + 1) + "@email.com");
+	}
+
+	@Benchmark
+	public List<UsuarioResumo> buscarPagina() {
+		return usuarios.buscarPagina(ThreadLocalRandom.current().nextInt(USUARIOS - 20), Limit.of(20));
+	}
+
+	@Benchmark
+	public int atualizarCampos() {
+		return usuarios.atualizarCampos(ThreadLocalRandom.current().nextInt(1, USUARIOS + 1), null,
+				null, null, null, "(11) 91111-1111");
+	}
+
+}
@@ -0,0 +1,195 @@
+package br.com.criandoapi.projeto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("memoria")
+class RepositorioUsuariosMemoriaTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@TempDir
+	private Path diretorio;
+
+	@Test
+	void servicoRodaSobreORepositorioEmMemoria() {
+		assertInstanceOf(RepositorioUsuariosMemoria.class, repository);
+
+		Usuario criado = usuarioService.criarUsuario(novoUsuario("memoria@email.com"));
+		assertTrue(usuarioService.validarSenha(new DadosLogin("memoria@email.com", UsuariosTeste.SENHA)));
+		assertEquals("memoria@email.com", usuarioService.buscarUsuario(criado.getId()).email());
+
+		usuarioService.excluirUsuario(criado.getId());
+		assertFalse(repository.existsById(criado.getId()));
+	}
+
+	@Test
+	void emailUnicoSemDiferenciarMaiusculas() {
+		RepositorioUsuariosMemoria memoria = novoRepositorio("", DataSize.ofMegabytes(1));
+		memoria.save(novoUsuario("unico@email.com"));
+
+		assertTrue(memoria.existsByEmail("UNICO@email.com"));
+		assertThrows(DataIntegrityViolationException.class, () -> memoria.save(novoUsuario("Unico@Email.com")));
+		assertThrows(DataIntegrityViolationException.class,
+				() -> memoria.inserirEmLote(List.of(novoUsuario("lote@email.com"), novoUsuario("LOTE@email.com"))));
+		assertFalse(memoria.existsByEmail("lote@email.com"), "o lote com conflito não grava nenhuma linha");
+	}
+
+	@Test
+	void versaoConferidaComoNoJpa() {
+		RepositorioUsuariosMemoria memoria = novoRepositorio("", DataSize.ofMegabytes(1));
+		Usuario salvo = memoria.save(novoUsuario("versao@email.com"));
+
+		assertEquals(1, memoria.atualizarCampos(salvo.getId(), 0, "Nome Novo", null, null, null));
+		assertEquals(0, memoria.atualizarCampos(salvo.getId(), 0, "Nome Velho", null, null, null));
+		assertThrows(OptimisticLockingFailureException.class, () -> memoria.save(salvo));
+		assertEquals(0, memoria.excluirSeVersao(salvo.getId(), 0));
+		assertEquals(1, memoria.excluirSeVersao(salvo.getId(), 1));
+	}
+
+	@Test
+	void operacoesEmMassaIgnoramIdsInexistentes() {
+		RepositorioUsuariosMemoria memoria = novoRepositorio("", DataSize.ofMegabytes(1));
+		for (int i = 0; i < 5; i++) {
+			memoria.save(novoUsuario("m" + i + (i < 3 ? "@churn.com" : "@email.com")));
+		}
+
+		assertEquals(List.of(1, 2, 3), memoria.buscarIdsPorDominio("CHURN.com", 0, Limit.of(10)));
+		assertEquals(List.of(3), memoria.buscarIdsPorDominio("churn.com", 2, Limit.of(10)));
+		assertEquals(2, memoria.atualizarEmMassa(List.of(4, 5, 99), null, "(11) 3000-0000"));
+		assertEquals("(11) 3000-0000", memoria.buscarResumoPorId(5).orElseThrow().telefone());
+		assertEquals(1, memoria.buscarResumoPorId(5).orElseThrow().version());
+		assertEquals(2, memoria.excluirPorIds(List.of(1, 2, 99)));
+		assertEquals(List.of(3, 4), memoria.buscarIdsExistentes(List.of(4, 3, 1, 4)));
+		assertFalse(memoria.existsByEmail("m0@churn.com"));
+	}
+
+	@Test
+	void ordenacaoEConsultaPorExemploComoNoJpa() {
+		RepositorioUsuariosMemoria memoria = novoRepositorio("", DataSize.ofMegabytes(1));
+		for (String email : List.of("carla@email.com", "ana@churn.com", "bruno@email.com")) {
+			memoria.save(novoUsuario(email));
+		}
+
+		assertEquals(List.of(2, 3, 1), memoria.findAll(Sort.by("email")).stream().map(Usuario::getId).toList());
+		assertEquals(List.of(1, 3), memoria.findAll(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "email")))
+				.map(Usuario::getId).getContent());
+		assertThrows(PropertyReferenceException.class, () -> memoria.findAll(Sort.by("inexistente")));
+
+		Usuario modelo = new Usuario();
+		modelo.setEmail("@EMAIL.com");
+		Example<Usuario> exemplo = Example.of(modelo, ExampleMatcher.matching()
+				.withIgnorePaths("id", "version")
+				.withMatcher("email", ExampleMatcher.GenericPropertyMatchers.endsWith().ignoreCase()));
+
+		assertEquals(2, memoria.count(exemplo));
+		assertEquals(List.of(3, 1), memoria.findAll(exemplo, Sort.by("email")).stream().map(Usuario::getId).toList());
+		assertEquals("bruno@email.com", memoria.findBy(exemplo, consulta -> consulta.sortBy(Sort.by("email")).firstValue()).getEmail());
+		assertThrows(IncorrectResultSizeDataAccessException.class, () -> memoria.findOne(exemplo));
+		// Sem ignorar o id primitivo, o exemplo só casa com o ID 0, como no JPA
+		assertFalse(memoria.exists(Example.of(modelo, ExampleMatcher.matching()
+				.withMatcher("email", ExampleMatcher.GenericPropertyMatchers.endsWith().ignoreCase()))));
+	}
+
+	@Test
+	void indiceDeEmailContinuaCorretoDepoisDeMuitasExclusoes() {
+		RepositorioUsuariosMemoria memoria = novoRepositorio("", DataSize.ofMegabytes(1));
+		for (int i = 0; i < 5000; i++) {
+			memoria.save(novoUsuario("u" + i + "@email.com"));
+		}
+		for (int id = 2; id <= 5000; id += 2) {
+			memoria.deleteById(id);
+		}
+
+		for (int i = 0; i < 5000; i++) {
+			boolean excluido = (i + 1) % 2 == 0;
+			assertEquals(!excluido, memoria.existsByEmail("u" + i + "@email.com"), "u" + i);
+		}
+		assertEquals(2500, memoria.count());
+	}
+
+	@Test
+	void recuperaDoSnapshotEDoLogDepoisDeReiniciar() throws Exception {
+		// Log pequeno: as gravações geram snapshots no meio do caminho
+		RepositorioUsuariosMemoria memoria = novoRepositorio(diretorio.toString(), DataSize.ofKilobytes(4));
+		for (int i = 0; i < 200; i++) {
+			memoria.save(novoUsuario("r" + i + "@email.com"));
+		}
+		memoria.atualizarCampos(10, null, "Renomeado", null, null, null);
+		memoria.deleteById(20);
+		memoria.fechar();
+		assertTrue(Files.exists(diretorio.resolve("usuarios.snapshot")));
+
+		// Registro cortado no meio da escrita, no fim do log
+		Files.write(diretorio.resolve("usuarios.log"), new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+
+		RepositorioUsuariosMemoria recuperado = novoRepositorio(diretorio.toString(), DataSize.ofKilobytes(4));
+		assertEquals(199, recuperado.count());
+		assertEquals("Renomeado", recuperado.buscarResumoPorId(10).orElseThrow().nome());
+		assertFalse(recuperado.existsById(20));
+		assertTrue(recuperado.buscarCredencialPorEmail("R199@email.com").isPresent());
+		assertEquals(201, recuperado.save(novoUsuario("novo@email.com")).getId(), "os IDs continuam de onde pararam");
+		assertEquals(List.of(1, 2, 3), recuperado.buscarPagina(0, Limit.of(3)).stream().map(UsuarioResumo::id).toList());
+		recuperado.fechar();
+	}
+
+	@Test
+	void loteETudoOuNadaNoLog() throws Exception {
+		RepositorioUsuariosMemoria memoria = novoRepositorio(diretorio.toString(), DataSize.ofMegabytes(1));
+		memoria.inserirEmLote(List.of(novoUsuario("l1@email.com"), novoUsuario("l2@email.com"), novoUsuario("l3@email.com")));
+		memoria.fechar();
+
+		// Com o log fechado a escrita falha, e nenhuma linha do lote entra na memória
+		assertThrows(DataAccessResourceFailureException.class,
+				() -> memoria.inserirEmLote(List.of(novoUsuario("l4@email.com"), novoUsuario("l5@email.com"))));
+		assertFalse(memoria.existsByEmail("l4@email.com"));
+		assertEquals(3, memoria.count());
+
+		// Lote cortado no meio da escrita: a linha já escrita inteira também é descartada
+		Files.write(diretorio.resolve("usuarios.log"), new byte[]{3, 0, 0, 0, 2, 0, 0, 0, 4, 0, 0, 0, 1, 0, 0, 0, 5},
+				StandardOpenOption.APPEND);
+
+		RepositorioUsuariosMemoria recuperado = novoRepositorio(diretorio.toString(), DataSize.ofMegabytes(1));
+		assertEquals(3, recuperado.count());
+		assertTrue(recuperado.existsByEmail("l3@email.com"));
+		assertEquals(4, recuperado.save(novoUsuario("l4@email.com")).getId());
+		recuperado.fechar();
+	}
+
+	private static RepositorioUsuariosMemoria novoRepositorio(String diretorio, DataSize tamanhoMaximoLog) {
+		return new RepositorioUsuariosMemoria(diretorio, false, tamanhoMaximoLog, new SimpleMeterRegistry());
+	}
+
+}
@@ -0,0 +1,182 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class RespostasUsuariosTests {
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ConfiguracaoRespostas.ConversorJson conversorJson;
+
+	private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@Test
+	void cadastroNaoDevolveASenha() throws Exception {
+		HttpResponse<String> resposta = cliente.send(HttpRequest.newBuilder(uri("/usuarios"))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString("""
+								{"nome": "Ana Souza", "email": "ana@email.com", "senha": "senha123", "telefone": "(11) 11111-1111"}
+								"""))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(201, resposta.statusCode());
+		JsonNode criado = objectMapper.readTree(resposta.body());
+		assertTrue(criado.path("id").asInt() > 0);
+		assertFalse(criado.has("senha"));
+		assertFalse(resposta.body().contains("$2"), "o hash não aparece na resposta");
+	}
+
+	@Test
+	void comprimeSomenteRespostasAcimaDoLimite() throws Exception {
+		List<Usuario> usuarios = inserirUsuarios(30);
+
+		HttpResponse<byte[]> pagina = buscar("/usuarios?tamanho=30", "application/json", "gzip");
+		assertEquals(200, pagina.statusCode());
+		assertEquals("gzip", pagina.headers().firstValue("Content-Encoding").orElse(null));
+
+		HttpResponse<byte[]> usuario = buscar("/usuarios/" + usuarios.getFirst().getId(), "application/json", "gzip");
+		assertEquals(200, usuario.statusCode());
+		assertTrue(usuario.headers().firstValue("Content-Encoding").isEmpty(), "resposta pequena vai sem gzip");
+		assertEquals(usuario.body().length, usuario.headers().firstValueAsLong("Content-Length").orElse(-1));
+	}
+
+	@Test
+	void cborComOsMesmosCamposDoJson() throws Exception {
+		int id = inserirUsuarios(1).getFirst().getId();
+
+		HttpResponse<byte[]> json = buscar("/usuarios/" + id, "application/json", "identity");
+		HttpResponse<byte[]> cbor = buscar("/usuarios/" + id, "application/cbor", "identity");
+
+		assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElse(null));
+		assertEquals(objectMapper.readTree(json.body()), new CBORMapper().readTree(cbor.body()));
+		assertTrue(cbor.body().length < json.body().length);
+	}
+
+	/**
+	 * Compara, por página de usuários, os bytes enviados e a memória alocada na serialização da resposta:
+	 * o caminho anterior (entidade com o hash da senha, serialização por reflexão, sem compressão) com o atual
+	 * (resumo com o serializador pré-compilado, em JSON ou CBOR, com e sem gzip).
+	 * Rodar com: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=RespostasUsuariosTests
+	 */
+	@Test
+	@Tag("benchmark")
+	void comparaBytesEAlocacaoPorRequisicao() throws Exception {
+		inserirUsuarios(100);
+		// Reproduz o ObjectMapper anterior, que não respeitava o WRITE_ONLY da senha
+		MappingJackson2HttpMessageConverter anterior = new MappingJackson2HttpMessageConverter(
+				Jackson2ObjectMapperBuilder.json().featuresToDisable(MapperFeature.USE_ANNOTATIONS).build());
+
+		System.out.printf("%-9s %10s %10s %10s %10s %10s %14s %14s%n", "usuarios", "anterior", "json", "json+gzip",
+				"cbor", "cbor+gzip", "aloc anterior", "aloc atual");
+		for (int tamanho : new int[]{1, 20, 100}) {
+			List<Usuario> entidades = repository.findAll().subList(0, tamanho);
+			List<UsuarioResumo> resumos = entidades.stream().map(UsuarioResumo::de).toList();
+			String caminho = "/usuarios?tamanho=" + tamanho;
+
+			int bytesAnterior = anterior.getObjectMapper().writeValueAsBytes(entidades).length;
+			System.out.printf("%-9d %10d %10d %10d %10d %10d %12dB %12dB%n", tamanho, bytesAnterior,
+					buscar(caminho, "application/json", "identity").body().length,
+					buscar(caminho, "application/json", "gzip").body().length,
+					buscar(caminho, "application/cbor", "identity").body().length,
+					buscar(caminho, "application/cbor", "gzip").body().length,
+					alocadoPorEscrita(anterior, entidades), alocadoPorEscrita(conversorJson, resumos));
+		}
+		System.out.printf("(gzip de uma página de 100 no caminho anterior seria %d bytes)%n",
+				gzip(anterior.getObjectMapper().writeValueAsBytes(repository.findAll())));
+	}
+
+	// Média de bytes alocados pela thread atual em cada escrita da resposta pelo conversor
+	private static long alocadoPorEscrita(MappingJackson2HttpMessageConverter conversor, Object corpo) throws IOException {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		int repeticoes = 2000;
+		for (int i = 0; i < repeticoes; i++) {
+			escrever(conversor, corpo);
+		}
+		long antes = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < repeticoes; i++) {
+			escrever(conversor, corpo);
+		}
+		return (threads.getCurrentThreadAllocatedBytes() - antes) / repeticoes;
+	}
+
+	private static void escrever(MappingJackson2HttpMessageConverter conversor, Object corpo) throws IOException {
+		conversor.write(corpo, MediaType.APPLICATION_JSON, new ServletServerHttpResponse(new MockHttpServletResponse()));
+	}
+
+	private static int gzip(byte[] dados) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (GZIPOutputStream compressor = new GZIPOutputStream(saida)) {
+			compressor.write(dados);
+		}
+		return saida.size();
+	}
+
+	private HttpResponse<byte[]> buscar(String caminho, String tipo, String codificacao) throws Exception {
+		return cliente.send(HttpRequest.newBuilder(uri(caminho))
+						.header("Accept", tipo)
+						.header("Accept-Encoding", codificacao)
+						.build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private URI uri(String caminho) {
+		return URI.create("http://localhost:" + porta + caminho);
+	}
+
+	// Insere direto pelo repositório, com um hash fixo, para não gastar tempo com BCrypt
+	private List<Usuario> inserirUsuarios(int quantidade) {
+		List<Usuario> usuarios = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			usuarios.add(UsuariosTeste.novoUsuarioComHash("Usuario Resposta " + i, "resposta" + i + "@email.com"));
+		}
+		repository.inserirEmLote(usuarios);
+		return usuarios;
+	}
+
+}
@@ -0,0 +1,97 @@
+package br.com.criandoapi.projeto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de listas de usuários com o mesmo {@link ObjectMapper} padrão do Spring MVC,
+ * tanto da entidade {@link Usuario} quanto do {@link UsuarioResumo} devolvido pela listagem paginada,
+ * comparada com os ObjectMappers da aplicação ({@link ConfiguracaoRespostas}): serializador pré-compilado,
+ * pool compartilhado de buffers e o formato CBOR.
+ *
+ * <p>A alocação por operação aparece em gc.alloc.rate.norm (o {@link ExecutarBenchmarks} liga o profiler de GC).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoUsuariosBenchmark {
+
+	@Param({"1", "20", "100", "1000"})
+	private int tamanho;
+
+	private ObjectMapper objectMapper;
+
+	// Caminho anterior das respostas de cadastro: a entidade inteira, inclusive o hash da senha
+	private ObjectMapper objectMapperAnterior;
+
+	private ObjectMapper objectMapperAplicacao;
+
+	private ObjectMapper objectMapperCbor;
+
+	private List<Usuario> usuarios;
+
+	private List<UsuarioResumo> resumos;
+
+	@Setup
+	public void preparar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		objectMapperAnterior = Jackson2ObjectMapperBuilder.json().featuresToDisable(MapperFeature.USE_ANNOTATIONS).build();
+		objectMapperAplicacao = Jackson2ObjectMapperBuilder.json()
+				.serializers(new SerializadorUsuarioResumo())
+				.postConfigurer(ConfiguracaoRespostas::usarPoolCompartilhado)
+				.build();
+		objectMapperCbor = Jackson2ObjectMapperBuilder.cbor()
+				.serializers(new SerializadorUsuarioResumo())
+				.postConfigurer(ConfiguracaoRespostas::usarPoolCompartilhado)
+				.build();
+		usuarios = new ArrayList<>(tamanho);
+		resumos = new ArrayList<>(tamanho);
+		for (int i = 1; i <= tamanho; i++) {
+			Usuario usuario = UsuariosTeste.novoUsuarioComHash("Usuario Benchmark " + i, "usuario" + i + "@email.com");
+			usuario.setId(i);
+			usuarios.add(usuario);
+			resumos.add(UsuarioResumo.de(usuario));
+		}
+	}
+
+	@Benchmark
+	public byte[] serializarUsuarios() throws JsonProcessingException {
+		return objectMapperAnterior.writeValueAsBytes(usuarios);
+	}
+
+	@Benchmark
+	public byte[] serializarResumos() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(resumos);
+	}
+
+	@Benchmark
+	public byte[] serializarResumosPreCompilados() throws JsonProcessingException {
+		return objectMapperAplicacao.writeValueAsBytes(resumos);
+	}
+
+	@Benchmark
+	public byte[] serializarResumosCbor() throws JsonProcessingException {
+		return objectMapperCbor.writeValueAsBytes(resumos);
+	}
+
+}
@@ -0,0 +1,178 @@
+package br.com.criandoapi.projeto;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Teste de carga que compara o pool de threads de plataforma do Tomcat com o modo de threads virtuais
+ * (perfil "virtual") quando o banco de dados está lento.
+ *
+ * <p>Cada comando JDBC recebe um atraso artificial enquanto segura a conexão, simulando um MySQL lento.
+ * São disparadas várias requisições simultâneas a GET /usuarios e o teste mede, no servidor, o máximo de
+ * requisições em andamento ao mesmo tempo e, no cliente, as latências p50/p99.</p>
+ *
+ * <p>Rodar com: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ThreadsVirtuaisCargaTests</p>
+ */
+@Tag("benchmark")
+class ThreadsVirtuaisCargaTests {
+
+	private static final int REQUISICOES = 2000;
+	private static final long LATENCIA_DB_MS = 100;
+
+	private record Resultado(int maximoEmAndamento, long p50Ms, long p99Ms, long totalMs) {
+	}
+
+	@Test
+	void comparaThreadsDePlataformaComVirtuais() throws Exception {
+		Resultado plataforma = executar(false);
+		Resultado virtuais = executar(true);
+
+		System.out.printf("%-12s %14s %8s %8s %10s%n", "modo", "max andamento", "p50 ms", "p99 ms", "total ms");
+		imprimir("plataforma", plataforma);
+		imprimir("virtuais", virtuais);
+	}
+
+	private static void imprimir(String modo, Resultado resultado) {
+		System.out.printf("%-12s %14d %8d %8d %10d%n", modo,
+				resultado.maximoEmAndamento(), resultado.p50Ms(), resultado.p99Ms(), resultado.totalMs());
+	}
+
+	private Resultado executar(boolean threadsVirtuais) throws Exception {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(ProjetoApplication.class, ConfiguracaoCarga.class)
+				.profiles("test");
+		if (threadsVirtuais) {
+			builder.profiles("virtual");
+		}
+		try (ConfigurableApplicationContext contexto = builder.run(
+				"--server.port=0",
+				"--spring.datasource.hikari.maximum-pool-size=400")) {
+			IUsuario repository = contexto.getBean(IUsuario.class);
+			repository.deleteAllInBatch();
+			for (int i = 0; i < 20; i++) {
+				repository.save(UsuariosTeste.novoUsuarioComHash("Usuario " + i, "carga" + i + "@email.com"));
+			}
+
+			ConfiguracaoCarga.ATRASO_ATIVO = true;
+			ConfiguracaoCarga.EM_ANDAMENTO.set(0);
+			ConfiguracaoCarga.MAXIMO_EM_ANDAMENTO.set(0);
+			try {
+				String porta = contexto.getEnvironment().getProperty("local.server.port");
+				return disparar(URI.create("http://localhost:" + porta + "/usuarios?tamanho=10"));
+			} finally {
+				ConfiguracaoCarga.ATRASO_ATIVO = false;
+			}
+		}
+	}
+
+	private Resultado disparar(URI uri) {
+		HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		HttpRequest requisicao = HttpRequest.newBuilder(uri).GET().build();
+
+		long inicio = System.nanoTime();
+		List<CompletableFuture<Long>> respostas = new ArrayList<>(REQUISICOES);
+		for (int i = 0; i < REQUISICOES; i++) {
+			long enviada = System.nanoTime();
+			respostas.add(cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+					.thenApply(resposta -> {
+						assertEquals(200, resposta.statusCode());
+						return (System.nanoTime() - enviada) / 1_000_000;
+					}));
+		}
+
+		long[] latencias = respostas.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+		long total = (System.nanoTime() - inicio) / 1_000_000;
+		return new Resultado(ConfiguracaoCarga.MAXIMO_EM_ANDAMENTO.get(),
+				percentil(latencias, 0.50), percentil(latencias, 0.99), total);
+	}
+
+	private static long percentil(long[] ordenadas, double percentil) {
+		int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+		return ordenadas[Math.max(0, indice)];
+	}
+
+	/**
+	 * Configuração usada só neste teste: atraso artificial no JDBC e contagem de requisições em andamento.
+	 */
+	@TestConfiguration(proxyBeanMethods = false)
+	static class ConfiguracaoCarga {
+
+		static volatile boolean ATRASO_ATIVO;
+		static final AtomicInteger EM_ANDAMENTO = new AtomicInteger();
+		static final AtomicInteger MAXIMO_EM_ANDAMENTO = new AtomicInteger();
+
+		@Bean
+		static BeanPostProcessor latenciaArtificialNoBanco() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String nome) {
+					if (bean instanceof DataSource dataSource) {
+						return comAtraso(dataSource, DataSource.class);
+					}
+					return bean;
+				}
+			};
+		}
+
+		@Bean
+		FilterRegistrationBean<Filter> contadorDeRequisicoes() {
+			Filter filtro = (request, response, cadeia) -> {
+				MAXIMO_EM_ANDAMENTO.accumulateAndGet(EM_ANDAMENTO.incrementAndGet(), Math::max);
+				try {
+					cadeia.doFilter(request, response);
+				} finally {
+					EM_ANDAMENTO.decrementAndGet();
+				}
+			};
+			return new FilterRegistrationBean<>(filtro);
+		}
+
+		// Envolve DataSource, Connection e Statement para atrasar cada execução de comando SQL
+		@SuppressWarnings("unchecked")
+		private static <T> T comAtraso(T alvo, Class<?> tipo) {
+			return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, argumentos) -> {
+				if (ATRASO_ATIVO && metodo.getName().startsWith("execute")) {
+					Thread.sleep(LATENCIA_DB_MS);
+				}
+				Object resultado = invocar(alvo, metodo, argumentos);
+				Class<?> retorno = metodo.getReturnType();
+				if (resultado != null && (retorno == Connection.class || Statement.class.isAssignableFrom(retorno))) {
+					return comAtraso(resultado, retorno);
+				}
+				return resultado;
+			});
+		}
+
+		private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws Throwable {
+			try {
+				return metodo.invoke(alvo, argumentos);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+}
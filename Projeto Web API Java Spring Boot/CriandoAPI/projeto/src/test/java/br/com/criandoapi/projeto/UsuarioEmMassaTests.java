@@ -0,0 +1,150 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Blocos de 2 IDs, para que poucas linhas já passem por vários blocos
+@SpringBootTest(properties = "usuarios.lote.tamanho-bloco=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UsuarioEmMassaTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@Test
+	void excluiPorIdsEmBlocosEInvalidaOCache() {
+		List<Integer> ids = criarUsuarios("email.com", 5);
+		// Coloca os usuários no cache antes da exclusão
+		ids.forEach(usuarioService::buscarUsuario);
+
+		int excluidos = usuarioService.excluirUsuarios(
+				new ExclusaoEmMassa(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(2), 999_999), null));
+
+		assertEquals(3, excluidos);
+		assertEquals(2, repository.count());
+		assertThrows(UsuarioNaoEncontradoException.class, () -> usuarioService.buscarUsuario(ids.get(0)));
+		assertEquals(ids.get(3), usuarioService.buscarUsuario(ids.get(3)).id());
+	}
+
+	@Test
+	void exclusaoIndividualDeIdInexistenteNaoPublicaEvento() throws Exception {
+		String etag = mockMvc.perform(get("/usuarios")).andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(delete("/usuarios/999999"))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/usuarios").header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void etagDaListagemMudaComAlteracaoFeitaDiretoNoBanco() throws Exception {
+		List<Integer> ids = criarUsuarios("email.com", 3);
+		String etag = mockMvc.perform(get("/usuarios")).andReturn().getResponse().getHeader("ETag");
+
+		// Como outra instância faria: UPDATE direto, sem evento nesta instância
+		repository.atualizarEmMassa(List.of(ids.get(1)), null, "(11) 3000-0000");
+
+		mockMvc.perform(get("/usuarios").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.usuarios[1].telefone").value("(11) 3000-0000"));
+	}
+
+	@Test
+	void excluiPorDominio() throws Exception {
+		criarUsuarios("churn.com", 5);
+		List<Integer> mantidos = criarUsuarios("email.com", 3);
+
+		mockMvc.perform(delete("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"dominio\": \"churn.com\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.afetados").value(5));
+
+		assertEquals(mantidos, repository.findAll().stream().map(Usuario::getId).sorted().toList());
+	}
+
+	@Test
+	void atualizaEmMassaIncrementandoAVersao() throws Exception {
+		List<Integer> ids = criarUsuarios("email.com", 3);
+		usuarioService.buscarUsuario(ids.get(0));
+
+		mockMvc.perform(patch("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [%d, %d, 999999], \"telefone\": \"(11) 3000-0000\"}".formatted(ids.get(0), ids.get(1))))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.afetados").value(2));
+
+		UsuarioResumo atualizado = usuarioService.buscarUsuario(ids.get(0));
+		assertEquals("(11) 3000-0000", atualizado.telefone());
+		assertEquals(1, atualizado.version());
+		assertEquals("(11) 90000-0000", usuarioService.buscarUsuario(ids.get(2)).telefone());
+	}
+
+	@Test
+	void recusaCriterioAmbiguoOuVazio() throws Exception {
+		mockMvc.perform(delete("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [1], \"dominio\": \"email.com\"}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.criterioUnico").exists());
+
+		mockMvc.perform(patch("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [1]}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.algumCampo").exists());
+	}
+
+	@Test
+	void atualizacaoEmMassaNaoAceitaNomeEmBranco() throws Exception {
+		List<Integer> ids = criarUsuarios("email.com", 2);
+
+		mockMvc.perform(patch("/usuarios")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\": [%d, %d], \"nome\": \"   \"}".formatted(ids.get(0), ids.get(1))))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.nome").exists());
+
+		assertEquals("Usuario Massa 0", usuarioService.buscarUsuario(ids.get(0)).nome());
+	}
+
+	private List<Integer> criarUsuarios(String dominio, int quantidade) {
+		List<Usuario> usuarios = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			usuarios.add(novoUsuario("Usuario Massa " + i, "massa" + i + "@" + dominio));
+		}
+		return usuarioService.criarUsuariosEmLote(usuarios.iterator()).stream().map(ResultadoLote::id).toList();
+	}
+
+}
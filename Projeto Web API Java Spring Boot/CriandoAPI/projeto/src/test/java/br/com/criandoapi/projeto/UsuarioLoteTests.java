@@ -0,0 +1,106 @@
+package br.com.criandoapi.projeto;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.criandoapi.projeto.UsuariosTeste.novoUsuario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UsuarioLoteTests {
+
+	@Autowired
+	private UsuarioService usuarioService;
+
+	@Autowired
+	private IUsuario repository;
+
+	@BeforeEach
+	void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@Test
+	void criaUsuariosEmLoteComResultadoPorLinha() {
+		String ndjson = """
+				{"nome": "Ana Souza", "email": "ana@email.com", "senha": "senha123", "telefone": "(11) 11111-1111"}
+				{"nome": "B", "email": "nao-e-email", "senha": "senha456", "telefone": "(11) 22222-2222"}
+				{"nome": "Carlos Lima", "email": "carlos@email.com", "senha": "senha789", "telefone": "(11) 33333-3333"}
+				""";
+
+		List<ResultadoLote> resultados = usuarioService.criarUsuariosEmLote(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(3, resultados.size());
+		assertEquals(201, resultados.get(0).status());
+		assertNotNull(resultados.get(0).id());
+		assertEquals(400, resultados.get(1).status());
+		assertNull(resultados.get(1).id());
+		assertTrue(resultados.get(1).erros().containsKey("email"));
+		assertEquals(201, resultados.get(2).status());
+		assertEquals(2, repository.count());
+
+		Usuario ana = repository.findById(resultados.get(0).id()).orElseThrow();
+		assertTrue(ana.getSenha().startsWith("$2"));
+	}
+
+	@Test
+	void aceitaArrayJson() {
+		String json = """
+				[
+				  {"nome": "Ana Souza", "email": "ana@email.com", "senha": "senha123", "telefone": "(11) 11111-1111"},
+				  {"nome": "Bruno Lima", "email": "bruno@email.com", "senha": "senha456", "telefone": "(11) 22222-2222"}
+				]
+				""";
+
+		List<ResultadoLote> resultados = usuarioService.criarUsuariosEmLote(
+				new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, resultados.size());
+		assertTrue(resultados.stream().allMatch(resultado -> resultado.status() == 201));
+	}
+
+	/**
+	 * Compara a vazão (usuários/s) do cadastro individual com a do cadastro em lote.
+	 * Rodar com: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=UsuarioLoteTests
+	 */
+	@Test
+	@Tag("benchmark")
+	void comparaVazaoIndividualComLote() {
+		int quantidade = 400;
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < quantidade; i++) {
+			usuarioService.criarUsuario(novoUsuario("individual" + i + "@email.com"));
+		}
+		double segundosIndividual = (System.nanoTime() - inicio) / 1e9;
+
+		List<Usuario> lote = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			lote.add(novoUsuario("lote" + i + "@email.com"));
+		}
+		inicio = System.nanoTime();
+		List<ResultadoLote> resultados = usuarioService.criarUsuariosEmLote(lote.iterator());
+		double segundosLote = (System.nanoTime() - inicio) / 1e9;
+
+		assertTrue(resultados.stream().allMatch(resultado -> resultado.status() == 201));
+		System.out.printf("Individual: %d usuários em %.2fs (%.1f usuários/s)%n",
+				quantidade, segundosIndividual, quantidade / segundosIndividual);
+		System.out.printf("Lote:       %d usuários em %.2fs (%.1f usuários/s)%n",
+				quantidade, segundosLote, quantidade / segundosLote);
+	}
+
+}
@@ -0,0 +1,46 @@
+package br.com.criandoapi.projeto;
+
+/**
+ * Usuários de exemplo compartilhados pelos testes e benchmarks.
+ */
+final class UsuariosTeste {
+
+	// Senha em texto dos usuários de exemplo
+	static final String SENHA = "senha123";
+
+	// Hash BCrypt fictício, do mesmo tamanho de um real, para gravar direto no banco sem gastar tempo com BCrypt
+	static final String HASH = "$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0";
+
+	private UsuariosTeste() {
+	}
+
+	/**
+	 * Usuário válido com o e-mail informado, a senha {@link #SENHA} e nome e telefone fixos.
+	 */
+	static Usuario novoUsuario(String email) {
+		return novoUsuario("Usuario Teste", email);
+	}
+
+	/**
+	 * Usuário válido com o nome e o e-mail informados, a senha {@link #SENHA} e telefone fixo.
+	 */
+	static Usuario novoUsuario(String nome, String email) {
+		Usuario usuario = new Usuario();
+		usuario.setNome(nome);
+		usuario.setEmail(email);
+		usuario.setSenha(SENHA);
+		usuario.setTelefone("(11) 90000-0000");
+		return usuario;
+	}
+
+	/**
+	 * Usuário com o nome e o e-mail informados e a senha já criptografada ({@link #HASH}), para inserção direta
+	 * pelo repositório.
+	 */
+	static Usuario novoUsuarioComHash(String nome, String email) {
+		Usuario usuario = novoUsuario(nome, email);
+		usuario.setSenha(HASH);
+		return usuario;
+	}
+
+}